@@ -0,0 +1,53 @@
+package per.study.jpa.benchmark;
+
+import org.hibernate.MappingException;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.jpa.spi.IdentifierGeneratorStrategyProvider;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 엔티티에 선언된 allocationSize(=1)를 벤치마크 파라미터로 덮어쓰기 위한 전략 제공자
+ * - hibernate.ejb.identifier_generator_strategy_provider 로 등록
+ * - SEQUENCE / TABLE 전략이 사용하는 생성기를 increment_size만 바꾼 하위 클래스로 교체
+ * - allocationSize가 1보다 크면 Hibernate 기본 pooled 옵티마이저가 동작
+ */
+public class AllocationSizeStrategyProvider implements IdentifierGeneratorStrategyProvider {
+
+    static final String ALLOCATION_SIZE = "jpa.benchmark.allocation-size";
+
+    @Override
+    public Map<String, Class<?>> getStrategies() {
+        Map<String, Class<?>> strategies = new HashMap<>();
+        strategies.put(SequenceStyleGenerator.class.getName(), SizedSequenceGenerator.class);
+        strategies.put(TableGenerator.class.getName(), SizedTableGenerator.class);
+        return strategies;
+    }
+
+    private static String allocationSize() {
+        return System.getProperty(ALLOCATION_SIZE, "1");
+    }
+
+    public static class SizedSequenceGenerator extends SequenceStyleGenerator {
+
+        @Override
+        public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+            params.setProperty(INCREMENT_PARAM, allocationSize());
+            super.configure(type, params, serviceRegistry);
+        }
+    }
+
+    public static class SizedTableGenerator extends TableGenerator {
+
+        @Override
+        public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+            params.setProperty(INCREMENT_PARAM, allocationSize());
+            super.configure(type, params, serviceRegistry);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package per.study.jpa.benchmark;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import per.study.jpa.bulk.BulkLoader;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 영속성 컨텍스트 크기(managed)에 따른 플러시 시간
+ * - 이터레이션마다 회원 managed명을 조회하고 changed명만 수정한 뒤 플러시 한 번을 측정 (끝나면 롤백)
+ * - 스냅샷 비교: 플러시할 때 managed명 모두를 스냅샷과 비교하므로 managed에 비례
+ * - 변경 추적(enableDirtyTracking): 변경된 changed명만 비교, 나머지는 변경 여부 플래그만 확인
+ *   엔티티에 변경 가능한 타입(java.util.Date 등)의 속성이 있으면 Hibernate가 변경 추적과 상관없이 모두 스냅샷과 비교함
+ *   Member의 시각은 LocalDateTime(불변)이므로 변경 추적만으로 판단
+ *
+ * 실행
+ * - 변경 추적: ./gradlew jmh -PjmhIncludes=FlushBenchmark
+ * - 스냅샷 비교: ./gradlew jmh -PjmhIncludes=FlushBenchmark -PdirtyTracking=false
+ * 바이트코드 향상은 빌드할 때 결정되므로 두 결과는 각각 실행해서 비교 (dirtyTracking 출력으로 확인)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class FlushBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int managed;
+
+    @Param({"10"})
+    public int changed;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.cache.use_second_level_cache", "false");
+        properties.put("hibernate.show_sql", "false");
+        properties.put("hibernate.format_sql", "false");
+        properties.put("hibernate.use_sql_comments", "false");
+        emf = Persistence.createEntityManagerFactory("jpabook", properties);
+
+        BulkLoader loader = new BulkLoader(emf, 50, 5_000);
+        loader.loadTeams(List.of(new Team("team1", "팀1")).iterator());
+        Iterator<Member> members = IntStream.range(0, managed)
+            .mapToObj(i -> {
+                Member member = new Member("member" + i, "회원" + i);
+                member.setAge(i);
+                member.setTeam(new Team("team1", "팀1"));
+                return member;
+            })
+            .iterator();
+        loader.loadMembers(members);
+
+        System.out.printf("%n[flush] dirtyTracking=%s, managed=%d, changed=%d%n",
+            SelfDirtinessTracker.class.isAssignableFrom(Member.class), managed, changed);
+    }
+
+    @Setup(Level.Iteration)
+    public void loadAndChange() {
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < changed; i++) {
+            members.get(i * (members.size() / changed)).setUpdatedAt(now);
+        }
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+
+    @TearDown(Level.Iteration)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+}
@@ -0,0 +1,152 @@
+package per.study.jpa.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import per.study.jpa.entity.Board;
+import per.study.jpa.entity.MemberId;
+import per.study.jpa.entity.Post;
+import per.study.jpa.id.StripedIdGeneratorStrategyProvider;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 기본 키 생성 전략별 저장 비용 비교
+ * - IDENTITY: MemberId (persist 즉시 INSERT, 배치 불가)
+ * - SEQUENCE: Board (BOARD_SEQ_GENERATOR)
+ * - TABLE:    Post  (POST_SEQ_GENERATOR / MY_SEQUENCES)
+ *
+ * 결과 읽는 법
+ * - Score: 초당 INSERT 수 (ops/s = entity/s)
+ * - gc.alloc.rate.norm: 엔티티 하나를 저장할 때 할당한 바이트 (-prof gc)
+ * - roundTrips/entity: 이터레이션마다 출력, 엔티티 하나당 세션에서 prepare된 SQL 수 (배치 1회 = 1 왕복)
+ *   striped는 구간 예약을 세션 밖 커넥션에서 하므로 INSERT 경로의 왕복만 집계됨
+ *
+ * 실행: ./gradlew jmh -PjmhIncludes=IdStrategyBenchmark -PjmhThreads=4
+ * allocationSize는 IDENTITY 전략에 영향이 없음
+ * allocator
+ * - hibernate: Hibernate 기본 생성기 (allocationSize > 1 이면 pooled 옵티마이저)
+ * - striped:   per.study.jpa.id.StripedIdAllocator (allocationSize = block_size)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdStrategyBenchmark {
+
+    private static final int ENTITIES_PER_INVOCATION = 100;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"1", "50"})
+    public int allocationSize;
+
+    @Param({"hibernate", "striped"})
+    public String allocator;
+
+    private EntityManagerFactory emf;
+    private Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        if ("striped".equals(allocator)) {
+            properties.put("hibernate.ejb.identifier_generator_strategy_provider", StripedIdGeneratorStrategyProvider.class.getName());
+            properties.put("per.study.jpa.id.block_size", String.valueOf(allocationSize));
+        } else {
+            System.setProperty(AllocationSizeStrategyProvider.ALLOCATION_SIZE, String.valueOf(allocationSize));
+            properties.put("hibernate.ejb.identifier_generator_strategy_provider", AllocationSizeStrategyProvider.class.getName());
+        }
+        properties.put("hibernate.jdbc.batch_size", String.valueOf(batchSize));
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.generate_statistics", "true");
+        // 측정 중에는 SQL 출력 비용을 제외
+        properties.put("hibernate.show_sql", "false");
+        properties.put("hibernate.format_sql", "false");
+        properties.put("hibernate.use_sql_comments", "false");
+
+        emf = Persistence.createEntityManagerFactory("jpabook", properties);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportRoundTrips() {
+        long inserts = statistics.getEntityInsertCount();
+        if (inserts == 0) {
+            return;
+        }
+        double roundTrips = (double) statistics.getPrepareStatementCount() / inserts;
+        System.out.printf("%n[id-strategy] allocator=%s, batchSize=%d, allocationSize=%d, inserts=%d, roundTrips/entity=%.3f%n",
+            allocator, batchSize, allocationSize, inserts, roundTrips);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES_PER_INVOCATION)
+    public void identity() {
+        persist(MemberId::new);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES_PER_INVOCATION)
+    public void sequence() {
+        persist(Board::new);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES_PER_INVOCATION)
+    public void table() {
+        persist(Post::new);
+    }
+
+    private void persist(Supplier<?> factory) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            for (int i = 0; i < ENTITIES_PER_INVOCATION; i++) {
+                em.persist(factory.get());
+            }
+            tx.commit();
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package per.study.jpa;
 
-import org.hibernate.engine.spi.EntityEntry;
-import org.hibernate.engine.spi.PersistenceContext;
-import org.hibernate.engine.spi.SessionImplementor;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import per.study.jpa.bulk.BulkLoader;
+import per.study.jpa.bulk.MemberRelations;
 import per.study.jpa.entity.Board;
 import per.study.jpa.entity.Member;
 import per.study.jpa.entity.MemberId;
 import per.study.jpa.entity.Post;
 import per.study.jpa.entity.Team;
+import per.study.jpa.query.MemberQueries;
+import per.study.jpa.query.QueryStreamer;
+import per.study.jpa.query.TeamQueries;
+import per.study.jpa.sql.SqlTracer;
+import per.study.jpa.sql.TracingConnectionProvider;
+import per.study.jpa.stats.PersistenceContextProbe;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
 import javax.persistence.Persistence;
+import javax.persistence.TypedQuery;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 /**
  * ### 영속성 컨텍스트가 엔티티를 관리할 때 장점 ###
@@ -51,13 +63,20 @@ import java.util.Map;
 
 public class JpaMain {
     public static void main(String[] args) {
+        // SQL 추적(per.study.jpa.sql)과 영속성 컨텍스트 메트릭을 메모리에 보관
+        Metrics.addRegistry(new SimpleMeterRegistry());
+
         // persistence.xml 설정 정보를 읽어서 JPA를 동작시키기 위한 기반 객체를 만들고 JPA 구현체에 따라서 커넥션 풀 생성
         // 엔티티 매니터 팩토리를 생성하는 비용은 크므로 애플리케이션 전체에서 딱 한 번만 생성하고 공유해서 사용해야 함.
         EntityManagerFactory emf = Persistence.createEntityManagerFactory("jpabook");
+//        bulkLoad(emf);
 
         // 엔티티 매니저를 사용해서 엔티티를 데이터베이스에 등록/수정/삭제/조회할 수 있음
         EntityManager em = emf.createEntityManager();
 
+        // 트랜잭션이 끝날 때마다 영속성 컨텍스트 상태(엔티티 수, 스냅샷 크기, 플러시, 변경 감지)를 메트릭으로 기록
+        PersistenceContextProbe.attach(em, Metrics.globalRegistry, summary -> System.out.println("[pc] " + summary));
+
         // JPA를 사용하면 항상 트랜잭션 안에서 데이터를 변경해야 함.
         // 트랜잭션 없이 데이터를 변경하면 예외가 발생
         EntityTransaction tx = em.getTransaction();
@@ -70,16 +89,11 @@ public class JpaMain {
 //            queryLogicJoin(em);
 //            updateRelation(em);
 //            deleteRelation(em);
+//            reassignTeam(em);
+//            detachTeam(em);
             // 커밋하는 순간 데이터베이스에 SQL을 보냄
             tx.commit();
 
-            SessionImplementor session = em.unwrap(SessionImplementor.class);
-            PersistenceContext pc = session.getPersistenceContext();
-            Map.Entry<Object, EntityEntry>[] entityEntries = pc.reentrantSafeEntityEntries();
-
-            for (Map.Entry<Object, EntityEntry> entityEntry : entityEntries) {
-                System.out.println("entry: " + entityEntry.getKey() + " : " + entityEntry.getValue());
-            }
             // entity manager에는 team에 member 부분을 변경하지 않았기 때문에 DB에서 읽어서 쓰는 방식으로 예제를 해결함.
             em.clear();
             biDirection(em);
@@ -88,10 +102,29 @@ public class JpaMain {
         } finally {
             em.close();
         }
+        printSqlTrace(emf);
         emf.close();
 
     }
 
+    /**
+     * 실행하는 동안에는 출력하지 않고 끝난 뒤 SQL 형태별 실행 시간과 느린 SQL을 출력
+     */
+    private static void printSqlTrace(EntityManagerFactory emf) {
+        System.out.println("========== sql trace =========");
+
+        Metrics.globalRegistry.find("jdbc.statement").timers().stream()
+            .sorted(Comparator.comparingDouble((Timer timer) -> timer.totalTime(TimeUnit.MILLISECONDS)).reversed())
+            .limit(10)
+            .forEach(timer -> System.out.printf("[sql] count=%d, mean=%.3fms, max=%.3fms, sql=%s%n",
+                timer.count(), timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS), timer.getId().getTag("sql")));
+
+        SqlTracer tracer = TracingConnectionProvider.tracer(emf);
+        if (tracer != null) {
+            tracer.getSlowQueryLog().snapshot().forEach(query -> System.out.println("[slow] " + query));
+        }
+    }
+
     private static void logic(EntityManager em) {
         String id = "id1";
 
@@ -163,18 +196,46 @@ public class JpaMain {
         System.out.println("팀 이름 = " + team.getName());
     }
 
+    private static void bulkLoad(EntityManagerFactory emf) {
+        System.out.println("========== bulk load =========");
+
+        int teams = 100;
+        int membersPerTeam = 10_000;
+        BulkLoader loader = new BulkLoader(emf, 50, 1_000);
+        loader.setProgressListener(report -> {
+            if (report.getWindows() % 100 == 0) {
+                System.out.println("[bulk] " + report);
+            }
+        });
+
+        Iterator<Team> teamRows = IntStream.range(0, teams)
+            .mapToObj(i -> new Team("bulk-team" + i, "대량팀" + i))
+            .iterator();
+        System.out.println(loader.loadTeams(teamRows));
+
+        Iterator<Member> memberRows = IntStream.range(0, teams * membersPerTeam)
+            .mapToObj(i -> {
+                Member member = new Member("bulk-member" + i, "회원" + (i % 100_000));
+                member.setAge(i / 100_000);
+                member.setTeam(new Team("bulk-team" + (i % teams), null));
+                return member;
+            })
+            .iterator();
+        System.out.println(loader.loadMembers(memberRows));
+    }
+
     private static void queryLogicJoin(EntityManager em) {
         System.out.println("========== query logic join =========");
 
-        String jpql = "select m from Member m join m.team t where t.name=:teamName";
-
-        List<Member> resultList = em.createQuery(jpql, Member.class)
-            .setParameter("teamName", "팀1")
-            .getResultList();
+        // 이름만 필요하므로 엔티티(모든 컬럼 + 스냅샷) 대신 username만 조회
+        TypedQuery<String> query = MemberQueries.usernamesByTeam(em, "팀1");
 
-        for (Member member : resultList) {
-            System.out.println("[query] member.username = " + member.getUsername());
-        }
+        // getResultList()는 결과 전체를 메모리에 올리므로 커서로 읽음
+        QueryStreamer streamer = new QueryStreamer(500, 500);
+        long count = streamer.forEach(em, query, username ->
+            System.out.println("[query] member.username = " + username)
+        );
+        System.out.println("[query] count = " + count);
     }
 
     private static void updateRelation(EntityManager em) {
@@ -196,10 +257,33 @@ public class JpaMain {
         member.setTeam(null);
     }
 
+    private static void reassignTeam(EntityManager em) {
+        System.out.println("========== reassign team =========");
+
+        Team team2 = new Team("team2", "팀2");
+        em.persist(team2);
+
+        // 팀1의 모든 회원을 UPDATE 한 번으로 팀2로 이동
+        int updated = MemberRelations.reassign(em, "team1", "team2");
+        System.out.println("[relation] reassigned = " + updated + ", team2.members = " + team2.getMembers().size());
+    }
+
+    private static void detachTeam(EntityManager em) {
+        System.out.println("========== detach team =========");
+
+        int updated = MemberRelations.detach(em, "team1");
+        Member member = em.find(Member.class, "member1");
+        System.out.println("[relation] detached = " + updated + ", member1.team = " + member.getTeam());
+    }
+
     private static void biDirection(EntityManager em) {
         System.out.println("========== biDirection =========");
 
-        Member member = em.find(Member.class, "member1");
+        // 회원 수만 필요하면 회원 목록을 읽지 않음: TEAM.MEMBER_COUNT 한 행 (team.getMembers().size()는 COUNT 쿼리)
+        System.out.println("memberCount = " + TeamQueries.memberCount(em, "team1"));
+
+        // 회원 -> 팀 -> 회원 목록을 페치 조인으로 한 번에 조회
+        Member member = TeamQueries.findWithTeammates(em, "member1");
         List<Member> members = member.getTeam().getMembers();
         System.out.println(members.size());
 
@@ -0,0 +1,20 @@
+package per.study.jpa.bulk;
+
+import javax.persistence.PersistenceException;
+
+/**
+ * 윈도우 하나가 실패한 경우, 이전 윈도우까지는 커밋되어 있으므로 report로 이어서 등록할 위치를 알 수 있음
+ */
+public class BulkLoadException extends PersistenceException {
+
+    private final BulkLoadReport report;
+
+    BulkLoadException(BulkLoadReport report, Throwable cause) {
+        super("Bulk load of " + report.getEntityName() + " failed after " + report.getRows() + " committed rows", cause);
+        this.report = report;
+    }
+
+    public BulkLoadReport getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,58 @@
+package per.study.jpa.bulk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대량 등록 결과 (진행 중에는 윈도우마다 중간 결과로도 사용)
+ */
+public class BulkLoadReport {
+
+    private final String entityName;
+    private final long rows;
+    private final long skipped;
+    private final long windows;
+    private final long elapsedNanos;
+
+    BulkLoadReport(String entityName, long rows, long skipped, long windows, long elapsedNanos) {
+        this.entityName = entityName;
+        this.rows = rows;
+        this.skipped = skipped;
+        this.windows = windows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * 커밋된 행 수
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * 같은 윈도우 안의 식별자 또는 NAME_AGE_UNIQUE 중복으로 건너뛴 행 수
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getWindows() {
+        return windows;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkLoadReport{" + "entity='" + entityName + '\'' + ", rows=" + rows + ", skipped=" + skipped + ", windows=" + windows + ", elapsedMillis=" + getElapsedMillis() + ", rowsPerSecond=" + String.format("%.1f", getRowsPerSecond()) + '}';
+    }
+}
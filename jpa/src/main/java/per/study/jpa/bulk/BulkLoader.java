@@ -0,0 +1,146 @@
+package per.study.jpa.bulk;
+
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * ### 대량 등록 ###
+ * em.persist()를 반복하면 커밋할 때까지 모든 엔티티와 스냅샷이 영속성 컨텍스트에 남고 INSERT가 한 건씩 전달됨
+ *
+ * 1. JDBC 배치
+ *    - 세션의 JDBC 배치 크기를 batchSize로 지정 (hibernate.order_inserts로 같은 INSERT끼리 묶임)
+ *    - 직접 할당한 식별자(Member, Team)를 사용하므로 IDENTITY와 달리 배치가 가능
+ * 2. 윈도우 단위 커밋 + em.clear()
+ *    - windowSize개마다 커밋(플러시)하고 영속성 컨텍스트를 비워서 메모리 사용량을 일정하게 유지
+ *    - 실패하면 해당 윈도우만 롤백되고 BulkLoadException.getReport()로 커밋된 행 수를 알 수 있음
+ * 3. 제약 조건
+ *    - TEAM_ID 외래 키: 팀을 먼저 등록(loadTeams)한 뒤 회원을 등록(loadMembers)
+ *      회원의 팀은 em.getReference()로 바꿔서 팀을 다시 조회하지 않음
+ *    - 같은 윈도우 안의 식별자(MEMBER_ID, TEAM_ID) 중복과 NAME_AGE_UNIQUE (NAME, AGE) 중복은 건너뛰고 skipped로 집계
+ *      NAME이나 AGE가 null이면 데이터베이스도 중복으로 보지 않으므로 (NAME, AGE)로는 건너뛰지 않음
+ *      윈도우를 넘는 중복과 이미 저장된 행과의 중복은 데이터베이스 제약 조건이 막고, 그 윈도우가 롤백되어 BulkLoadException
+ */
+public class BulkLoader {
+
+    private final EntityManagerFactory emf;
+    private final int batchSize;
+    private final int windowSize;
+    private Consumer<BulkLoadReport> progressListener = report -> {};
+
+    public BulkLoader(EntityManagerFactory emf, int batchSize, int windowSize) {
+        if (batchSize < 1 || windowSize < batchSize) {
+            throw new IllegalArgumentException("batchSize must be positive and windowSize >= batchSize");
+        }
+        this.emf = emf;
+        this.batchSize = batchSize;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * 윈도우를 커밋할 때마다 그때까지의 결과를 전달받음
+     */
+    public void setProgressListener(Consumer<BulkLoadReport> progressListener) {
+        this.progressListener = Objects.requireNonNull(progressListener);
+    }
+
+    public BulkLoadReport loadTeams(Iterator<Team> teams) {
+        return load("Team", teams, team -> keys(team.getId()), EntityManager::persist);
+    }
+
+    public BulkLoadReport loadMembers(Iterator<Member> members) {
+        return load("Member", members, member -> keys(member.getId(), member.getUsername(), member.getAge()), (em, member) -> {
+            Team team = member.getTeam();
+            if (team != null) {
+                member.setTeam(em.getReference(Team.class, team.getId()));
+            }
+            em.persist(member);
+        });
+    }
+
+    /**
+     * @param uniqueKeys 윈도우 안에서 겹치면 건너뛸 키 목록
+     */
+    private <T> BulkLoadReport load(String entityName, Iterator<T> entities, Function<T, List<Object>> uniqueKeys, BiConsumer<EntityManager, T> persist) {
+        long start = System.nanoTime();
+        long rows = 0;
+        long skipped = 0;
+        long windows = 0;
+        int pending = 0;
+        Set<Object> windowKeys = new HashSet<>();
+
+        EntityManager em = emf.createEntityManager();
+        Session session = em.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        session.setHibernateFlushMode(FlushMode.COMMIT);
+        session.setCacheMode(CacheMode.IGNORE);
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            while (entities.hasNext()) {
+                T entity = entities.next();
+                List<Object> keys = uniqueKeys.apply(entity);
+                if (keys.stream().anyMatch(windowKeys::contains)) {
+                    skipped++;
+                    continue;
+                }
+                windowKeys.addAll(keys);
+                persist.accept(em, entity);
+                if (++pending == windowSize) {
+                    tx.commit();
+                    em.clear();
+                    windowKeys.clear();
+                    rows += pending;
+                    pending = 0;
+                    windows++;
+                    progressListener.accept(new BulkLoadReport(entityName, rows, skipped, windows, System.nanoTime() - start));
+                    tx.begin();
+                }
+            }
+            tx.commit();
+            em.clear();
+            rows += pending;
+            if (pending > 0) {
+                windows++;
+            }
+            return new BulkLoadReport(entityName, rows, skipped, windows, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw new BulkLoadException(new BulkLoadReport(entityName, rows, skipped, windows, System.nanoTime() - start), e);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * 식별자 키와 (NAME, AGE) 키, null인 값은 키로 사용하지 않음 (식별자와 이름이 같은 값이어도 겹치지 않도록 종류를 붙임)
+     */
+    private static List<Object> keys(Object id) {
+        return id == null ? List.of() : List.of(List.of("ID", id));
+    }
+
+    private static List<Object> keys(Object id, String username, Integer age) {
+        List<Object> keys = new ArrayList<>(keys(id));
+        if (username != null && age != null) {
+            keys.add(List.of("NAME_AGE", username, age));
+        }
+        return keys;
+    }
+}
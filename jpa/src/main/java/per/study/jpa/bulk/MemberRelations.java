@@ -0,0 +1,84 @@
+package per.study.jpa.bulk;
+
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import per.study.jpa.count.MemberCounts;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * ### 회원-팀 관계 일괄 변경 ###
+ * 회원마다 em.find() 후 setTeam()을 호출하면 회원 수만큼 SELECT + UPDATE가 나감
+ * JPQL 벌크 UPDATE 한 번으로 변경하고 영속성 컨텍스트를 데이터베이스와 맞춤
+ *
+ * 1. 실행 전 플러시: 아직 반영하지 않은 변경(setTeam 등)이 벌크 UPDATE 대상에 포함되도록
+ * 2. 벌크 UPDATE는 영속성 컨텍스트를 거치지 않으므로 이미 조회한 엔티티는 이전 값을 가지고 있음
+ *    - 영속성 컨텍스트에 있는 회원 중 대상 팀에 속했던 회원만 em.refresh()로 다시 조회
+ *    - 대상 팀(이전 팀, 새 팀)도 em.refresh()로 다시 조회해서 members 컬렉션을 새로 읽도록 함
+ * 3. 2차 캐시: Hibernate가 벌크 UPDATE 대상(회원 캐시와 team.members 캐시)을 비움
+ * 4. 벌크 UPDATE는 MemberCountListener를 거치지 않으므로 대상 팀의 MEMBER_COUNT를 다시 계산 (MemberCounts)
+ *
+ * 다시 조회하는 엔티티는 이미 조회되어 있던 것뿐이므로 대상 회원 수와 상관없음
+ */
+public final class MemberRelations {
+
+    private MemberRelations() {}
+
+    /**
+     * fromTeamId 팀의 모든 회원을 toTeamId 팀으로 이동 (같은 팀이면 아무것도 하지 않음)
+     * @return 변경된 회원 수
+     */
+    public static int reassign(EntityManager em, String fromTeamId, String toTeamId) {
+        if (fromTeamId.equals(toTeamId)) {
+            return 0;
+        }
+        em.flush();
+        int updated = em.createQuery("update Member m set m.team = :to where m.team.id = :from")
+            .setParameter("to", em.getReference(Team.class, toTeamId))
+            .setParameter("from", fromTeamId)
+            .executeUpdate();
+        MemberCounts.recount(em, Set.of(fromTeamId, toTeamId));
+        synchronize(em, fromTeamId, Set.of(fromTeamId, toTeamId));
+        return updated;
+    }
+
+    /**
+     * teamId 팀의 모든 회원을 팀에서 제외 (TEAM_ID = null)
+     * @return 변경된 회원 수
+     */
+    public static int detach(EntityManager em, String teamId) {
+        em.flush();
+        int updated = em.createQuery("update Member m set m.team = null where m.team.id = :teamId")
+            .setParameter("teamId", teamId)
+            .executeUpdate();
+        MemberCounts.recount(em, Set.of(teamId));
+        synchronize(em, teamId, Set.of(teamId));
+        return updated;
+    }
+
+    private static void synchronize(EntityManager em, String changedTeamId, Set<String> affectedTeamIds) {
+        PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Object> stale = new ArrayList<>();
+        // refresh()가 영속성 컨텍스트를 바꾸므로 대상을 먼저 모음
+        for (Map.Entry<Object, EntityEntry> entry : em.unwrap(SessionImplementor.class).getPersistenceContext().reentrantSafeEntityEntries()) {
+            Object entity = entry.getKey();
+            if (entity instanceof Member) {
+                Team team = ((Member) entity).getTeam();
+                if (team != null && Objects.equals(util.getIdentifier(team), changedTeamId)) {
+                    stale.add(entity);
+                }
+            } else if (entity instanceof Team && affectedTeamIds.contains(((Team) entity).getId())) {
+                stale.add(entity);
+            }
+        }
+        stale.forEach(em::refresh);
+    }
+}
@@ -0,0 +1,261 @@
+package per.study.jpa.bulk;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import per.study.jpa.count.MemberCounts;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ### 회원 대량 업서트 ###
+ * em.find() 후 persist() 또는 수정하면 행마다 조회 + 저장 두 번 왕복하고 영속성 컨텍스트가 계속 커짐
+ *
+ * 1. 엔티티를 영속성 컨텍스트에 올리지 않고 batchSize개씩 업서트 SQL을 JDBC 배치로 전송 (UpsertDialect)
+ *    - 충돌 대상: UpsertKey.ID 또는 UpsertKey.NAME_AGE (NAME_AGE_UNIQUE)
+ * 2. 등록/수정 건수: 배치를 보내기 전에 이미 있는 키의 팀(TEAM_ID)을 한 번 조회해서 행 수로 셈 (드라이버가 반환하는 행 수는 데이터베이스마다 다름)
+ *    - 같은 배치 안에서 키가 중복되면 마지막 값만 사용
+ *    - 동시에 같은 키를 저장하는 다른 트랜잭션이 있으면 건수가 어긋날 수 있음 (데이터는 업서트라서 안전)
+ * 3. 배치마다 커밋, 실패하면 해당 배치만 롤백하고 UpsertException
+ * 4. 영속성 컨텍스트를 거치지 않으므로 끝나면 커밋된 배치가 건드린 팀(이전 팀 + 새 팀)의 회원 수(MEMBER_COUNT)만 다시 계산하고
+ *    회원 캐시와 팀의 회원 목록 캐시를 비움
+ *    - 중간에 실패해도 커밋된 배치의 팀은 다시 계산, 재계산 실패는 UpsertException의 suppressed로 붙임
+ *
+ * 회원의 팀은 식별자(TEAM_ID)만 사용하므로 팀이 먼저 저장되어 있어야 함
+ */
+public class MemberUpserter {
+
+    private final EntityManagerFactory emf;
+    private final int batchSize;
+    private final UpsertDialect dialect;
+
+    public MemberUpserter(EntityManagerFactory emf, int batchSize) {
+        this(emf, batchSize, UpsertDialect.of(emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()));
+    }
+
+    MemberUpserter(EntityManagerFactory emf, int batchSize, UpsertDialect dialect) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.emf = emf;
+        this.batchSize = batchSize;
+        this.dialect = dialect;
+    }
+
+    public UpsertReport upsert(Iterator<Member> members, UpsertKey key) {
+        long start = System.nanoTime();
+        long inserted = 0;
+        long updated = 0;
+        long batches = 0;
+        Map<List<Object>, Member> batch = new LinkedHashMap<>();
+        Set<String> touchedTeams = new HashSet<>();
+        UpsertException failure = null;
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            boolean hasNext;
+            do {
+                hasNext = members.hasNext();
+                if (hasNext) {
+                    Member member = members.next();
+                    batch.put(keyOf(member, key), member);
+                }
+                if (batch.size() == batchSize || (!hasNext && !batch.isEmpty())) {
+                    long existing = write(em, tx, batch.values(), key, touchedTeams);
+                    inserted += batch.size() - existing;
+                    updated += existing;
+                    batches++;
+                    batch.clear();
+                }
+            } while (hasNext);
+        } catch (RuntimeException e) {
+            failure = new UpsertException(new UpsertReport(inserted, updated, batches, System.nanoTime() - start), e);
+            if (tx.isActive()) {
+                try {
+                    tx.rollback();
+                } catch (RuntimeException rollbackFailure) {
+                    failure.addSuppressed(rollbackFailure);
+                }
+            }
+        } finally {
+            em.close();
+        }
+
+        // 실패해도 커밋된 배치의 팀은 다시 계산, 재계산 예외가 원래 예외를 가리지 않도록 suppressed로 붙임
+        try {
+            recountTeams(touchedTeams);
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
+        } finally {
+            evictCaches();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return new UpsertReport(inserted, updated, batches, System.nanoTime() - start);
+    }
+
+    /**
+     * @param touchedTeams 커밋되면 배치가 건드린 팀(이전 팀 + 새 팀)을 추가
+     * @return 배치 중 이미 저장되어 있던 행 수 (수정된 행)
+     */
+    private long write(EntityManager em, EntityTransaction tx, Collection<Member> batch, UpsertKey key, Set<String> touchedTeams) {
+        Set<String> teams = new HashSet<>();
+        for (Member member : batch) {
+            if (member.getTeam() != null) {
+                teams.add(member.getTeam().getId());
+            }
+        }
+        tx.begin();
+        long existing = em.unwrap(Session.class).doReturningWork(connection -> {
+            long found = existingTeams(connection, batch, key, teams);
+            if (dialect.updateOnly()) {
+                updateThenInsert(connection, batch, key);
+                return found;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(dialect.upsertSql(key))) {
+                for (Member member : batch) {
+                    bind(statement, member, dialect.parameterColumns(key));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            return found;
+        });
+        tx.commit();
+        touchedTeams.addAll(teams);
+        return existing;
+    }
+
+    /**
+     * 이미 저장되어 있는 회원의 현재 팀을 teams에 추가
+     * @return 이미 저장되어 있는 행 수
+     */
+    private long existingTeams(Connection connection, Collection<Member> batch, UpsertKey key, Set<String> teams) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        batch.forEach(member -> parameters.addAll(keyOf(member, key)));
+        try (PreparedStatement statement = connection.prepareStatement(dialect.existingTeamsSql(key, parameters.size() / key.columns().length))) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            long found = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    found++;
+                    String teamId = resultSet.getString(1);
+                    if (teamId != null) {
+                        teams.add(teamId);
+                    }
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * 업서트 문장이 없는 데이터베이스: 행마다 UPDATE, 수정된 행이 없는 회원만 모아서 INSERT 배치
+     */
+    private void updateThenInsert(Connection connection, Collection<Member> batch, UpsertKey key) throws SQLException {
+        List<Member> missing = new ArrayList<>();
+        try (PreparedStatement update = connection.prepareStatement(dialect.upsertSql(key))) {
+            for (Member member : batch) {
+                bind(update, member, dialect.parameterColumns(key));
+                if (update.executeUpdate() == 0) {
+                    missing.add(member);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(dialect.insertSql())) {
+            for (Member member : missing) {
+                bind(insert, member, UpsertDialect.COLUMNS);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Member member, List<String> columns) throws SQLException {
+        for (int i = 0; i < columns.size(); i++) {
+            bind(statement, i + 1, member, columns.get(i));
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int index, Member member, String column) throws SQLException {
+        Team team = member.getTeam();
+        switch (column) {
+            case "ID" -> statement.setString(index, member.getId());
+            case "NAME" -> statement.setString(index, member.getUsername());
+            case "AGE" -> statement.setObject(index, member.getAge(), Types.INTEGER);
+            case "ROLETYPE" -> statement.setString(index, member.getRoleType() == null ? null : member.getRoleType().name());
+            case "CREATEDAT" -> statement.setTimestamp(index, timestamp(member.getCreatedAt()));
+            case "UPDATEDAT" -> statement.setTimestamp(index, timestamp(member.getUpdatedAt()));
+            case "DESCRIPTION" -> statement.setString(index, member.getDescription());
+            case "TEAM_ID" -> statement.setString(index, team == null ? null : team.getId());
+            default -> throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.valueOf(dateTime);
+    }
+
+    private static List<Object> keyOf(Member member, UpsertKey key) {
+        return key == UpsertKey.ID
+            ? Arrays.asList(member.getId())
+            : Arrays.asList(member.getUsername(), member.getAge());
+    }
+
+    /**
+     * 건드린 팀만 다시 계산 (전체를 다시 계산하면 모든 팀 행을 잠금)
+     */
+    private void recountTeams(Set<String> teamIds) {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            MemberCounts.recount(em, teamIds);
+            tx.commit();
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            em.close();
+        }
+    }
+
+    private void evictCaches() {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Member.class);
+        sessionFactory.getCache().evictCollectionData(Team.class.getName() + ".members");
+    }
+}
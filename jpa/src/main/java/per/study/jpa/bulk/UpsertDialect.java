@@ -0,0 +1,121 @@
+package per.study.jpa.bulk;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 데이터베이스마다 다른 업서트 SQL (JPA_MEMBER)
+ * - H2: MERGE INTO ... USING (VALUES ...) ON <키> (표준 MERGE)
+ * - MySQL: INSERT ... ON DUPLICATE KEY UPDATE
+ *   MySQL은 충돌 대상을 고를 수 없어서 PRIMARY와 NAME_AGE_UNIQUE 중 어느 쪽이 충돌해도 수정함
+ * - 그 밖의 데이터베이스(PORTABLE): 행마다 UPDATE, 수정된 행이 없으면 INSERT (INSERT만 JDBC 배치)
+ *   왕복이 행 수만큼 늘어나고, 다른 트랜잭션이 같은 키를 먼저 INSERT하면 중복 키 오류로 배치가 실패함
+ *
+ * 수정할 때는 키 컬럼과 createdAt은 그대로 두고 나머지 컬럼만 바꿈
+ */
+enum UpsertDialect {
+
+    H2 {
+        @Override
+        String upsertSql(UpsertKey key) {
+            String source = COLUMNS.stream().map(column -> "s." + column).collect(Collectors.joining(", "));
+            String on = Arrays.stream(key.columns()).map(column -> "t." + column + " = s." + column).collect(Collectors.joining(" and "));
+            String set = updatedColumns(key).stream().map(column -> "t." + column + " = s." + column).collect(Collectors.joining(", "));
+            return "merge into " + TABLE + " t"
+                + " using (values (cast(? as varchar(255)), cast(? as varchar(255)), cast(? as integer), cast(? as varchar(255)),"
+                + " cast(? as timestamp), cast(? as timestamp), cast(? as clob), cast(? as varchar(255))))"
+                + " s(" + String.join(", ", COLUMNS) + ")"
+                + " on " + on
+                + " when matched then update set " + set
+                + " when not matched then insert (" + String.join(", ", COLUMNS) + ") values (" + source + ")";
+        }
+    },
+
+    MYSQL {
+        @Override
+        String upsertSql(UpsertKey key) {
+            String set = updatedColumns(key).stream().map(column -> column + " = values(" + column + ")").collect(Collectors.joining(", "));
+            return insertSql() + " on duplicate key update " + set;
+        }
+    },
+
+    PORTABLE {
+        @Override
+        String upsertSql(UpsertKey key) {
+            String set = updatedColumns(key).stream().map(column -> column + " = ?").collect(Collectors.joining(", "));
+            String where = Arrays.stream(key.columns()).map(column -> column + " = ?").collect(Collectors.joining(" and "));
+            return "update " + TABLE + " set " + set + " where " + where;
+        }
+
+        @Override
+        List<String> parameterColumns(UpsertKey key) {
+            List<String> columns = new ArrayList<>(updatedColumns(key));
+            columns.addAll(Arrays.asList(key.columns()));
+            return columns;
+        }
+
+        @Override
+        boolean updateOnly() {
+            return true;
+        }
+    };
+
+    static final String TABLE = "JPA_MEMBER";
+    // 파라미터 순서 (MemberUpserter.bind)
+    static final List<String> COLUMNS = List.of("ID", "NAME", "AGE", "ROLETYPE", "CREATEDAT", "UPDATEDAT", "DESCRIPTION", "TEAM_ID");
+
+    abstract String upsertSql(UpsertKey key);
+
+    /**
+     * upsertSql의 파라미터 순서
+     */
+    List<String> parameterColumns(UpsertKey key) {
+        return COLUMNS;
+    }
+
+    /**
+     * true면 upsertSql은 기존 행만 수정하므로 수정된 행이 없는 회원은 insertSql()로 따로 저장
+     */
+    boolean updateOnly() {
+        return false;
+    }
+
+    String insertSql() {
+        return "insert into " + TABLE + " (" + String.join(", ", COLUMNS) + ")"
+            + " values (" + COLUMNS.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+    }
+
+    /**
+     * 배치 안에서 이미 저장되어 있는 회원의 팀을 조회하는 SQL (keys개의 키를 파라미터로 받음, 행 하나가 저장된 회원 하나)
+     */
+    String existingTeamsSql(UpsertKey key, int keys) {
+        String[] columns = key.columns();
+        String row = columns.length == 1 ? "?" : "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        String target = columns.length == 1 ? columns[0] : "(" + String.join(", ", columns) + ")";
+        return "select TEAM_ID from " + TABLE + " where " + target + " in (" + String.join(", ", Collections.nCopies(keys, row)) + ")";
+    }
+
+    static UpsertDialect of(Dialect dialect) {
+        if (dialect instanceof H2Dialect) {
+            return H2;
+        }
+        if (dialect instanceof MySQLDialect) {
+            return MYSQL;
+        }
+        return PORTABLE;
+    }
+
+    private static List<String> updatedColumns(UpsertKey key) {
+        List<String> keyColumns = Arrays.asList(key.columns());
+        return COLUMNS.stream()
+            .filter(column -> !column.equals("ID") && !keyColumns.contains(column) && !column.equals("CREATEDAT"))
+            .toList();
+    }
+}
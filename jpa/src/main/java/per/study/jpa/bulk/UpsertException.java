@@ -0,0 +1,20 @@
+package per.study.jpa.bulk;
+
+import javax.persistence.PersistenceException;
+
+/**
+ * 배치 하나가 실패한 경우, 이전 배치까지는 커밋되어 있으므로 report로 반영된 행 수를 알 수 있음
+ */
+public class UpsertException extends PersistenceException {
+
+    private final UpsertReport report;
+
+    UpsertException(UpsertReport report, Throwable cause) {
+        super("Member upsert failed after " + report.getBatches() + " committed batches", cause);
+        this.report = report;
+    }
+
+    public UpsertReport getReport() {
+        return report;
+    }
+}
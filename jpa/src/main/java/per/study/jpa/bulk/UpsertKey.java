@@ -0,0 +1,27 @@
+package per.study.jpa.bulk;
+
+/**
+ * 업서트할 때 기존 행을 찾는 기준 (충돌 대상)
+ */
+public enum UpsertKey {
+
+    /**
+     * 기본 키(ID)가 같으면 나머지 컬럼을 수정
+     */
+    ID("ID"),
+
+    /**
+     * NAME_AGE_UNIQUE (NAME, AGE)가 같으면 나머지 컬럼을 수정, 기존 행의 ID는 유지
+     */
+    NAME_AGE("NAME", "AGE");
+
+    private final String[] columns;
+
+    UpsertKey(String... columns) {
+        this.columns = columns;
+    }
+
+    String[] columns() {
+        return columns.clone();
+    }
+}
@@ -0,0 +1,45 @@
+package per.study.jpa.bulk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업서트 결과 (커밋된 배치까지)
+ */
+public class UpsertReport {
+
+    private final long inserted;
+    private final long updated;
+    private final long batches;
+    private final long elapsedNanos;
+
+    UpsertReport(long inserted, long updated, long batches, long elapsedNanos) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.batches = batches;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    /**
+     * 같은 배치 안에서 키가 중복된 행은 마지막 값 하나만 반영하므로 한 번만 집계
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "UpsertReport{" + "inserted=" + inserted + ", updated=" + updated + ", batches=" + batches + ", elapsedMillis=" + getElapsedMillis() + '}';
+    }
+}
@@ -0,0 +1,133 @@
+package per.study.jpa.cache;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+/**
+ * 2차 캐시 영역의 적중/실패/제거 횟수
+ * - ehcache.xml의 enable-statistics로 JCache가 등록한 MBean(javax.cache:type=CacheStatistics)을 읽음
+ * - 실행 중에는 jconsole 같은 JMX 도구로도 같은 값을 볼 수 있음
+ * - MBean 이름은 CacheManager(설정 파일 URI)별로 등록되므로 EMF가 여럿이면 of(emf, region)으로 조회
+ */
+public class CacheRegionStats {
+
+    private final String region;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long evictions;
+    private final long removals;
+
+    private CacheRegionStats(String region, CacheStatisticsMXBean statistics) {
+        this.region = region;
+        this.hits = statistics.getCacheHits();
+        this.misses = statistics.getCacheMisses();
+        this.puts = statistics.getCachePuts();
+        this.evictions = statistics.getCacheEvictions();
+        this.removals = statistics.getCacheRemovals();
+    }
+
+    /**
+     * JVM에 같은 영역 이름의 캐시가 하나뿐일 때
+     *
+     * @param region ehcache.xml의 cache alias (team, team.members, member)
+     * @throws IllegalStateException 여러 CacheManager가 같은 영역 이름을 등록한 경우
+     */
+    public static CacheRegionStats of(String region) {
+        return lookup(region, pattern("*", region));
+    }
+
+    /**
+     * emf가 사용하는 CacheManager의 영역
+     *
+     * @param region ehcache.xml의 cache alias (team, team.members, member)
+     */
+    public static CacheRegionStats of(EntityManagerFactory emf, String region) {
+        return lookup(region, pattern(sanitize(cacheManager(emf).getURI().toString()), region));
+    }
+
+    private static CacheRegionStats lookup(String region, ObjectName pattern) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = server.queryNames(pattern, null);
+        if (names.isEmpty()) {
+            throw new IllegalStateException("No cache statistics for region '" + region + "' (second-level cache disabled or statistics off)");
+        }
+        if (names.size() > 1) {
+            throw new IllegalStateException("Cache statistics for region '" + region + "' are registered by more than one CacheManager " + names + ", use of(emf, region)");
+        }
+        ObjectName name = names.iterator().next();
+        return new CacheRegionStats(region, JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class));
+    }
+
+    private static CacheManager cacheManager(EntityManagerFactory emf) {
+        RegionFactory regionFactory = emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(RegionFactory.class);
+        if (!(regionFactory instanceof JCacheRegionFactory)) {
+            throw new IllegalStateException("Second-level cache is not JCache: " + regionFactory.getClass().getName());
+        }
+        return ((JCacheRegionFactory) regionFactory).getCacheManager();
+    }
+
+    private static ObjectName pattern(String cacheManager, String region) {
+        try {
+            return new ObjectName("javax.cache:type=CacheStatistics,CacheManager=" + cacheManager + ",Cache=" + sanitize(region));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid cache region name: " + region, e);
+        }
+    }
+
+    // Ehcache가 MBean 이름을 만들 때처럼 ObjectName 구분 문자를 '.'으로 바꿈
+    private static String sanitize(String value) {
+        return value.replaceAll("[,:=\n]", ".");
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    /**
+     * 크기 제한이나 TTL로 제거된 항목 수
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * 수정/삭제로 무효화된 항목 수
+     */
+    public long getRemovals() {
+        return removals;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheRegionStats{" + "region='" + region + '\'' + ", hits=" + hits + ", misses=" + misses + ", puts=" + puts + ", evictions=" + evictions + ", removals=" + removals + ", hitRatio=" + String.format("%.2f", getHitRatio()) + '}';
+    }
+}
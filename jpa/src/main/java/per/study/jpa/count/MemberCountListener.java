@@ -0,0 +1,155 @@
+package per.study.jpa.count;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import java.sql.PreparedStatement;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TEAM.MEMBER_COUNT 유지
+ *
+ * 1. 회원 INSERT/UPDATE/DELETE 후: 팀별 증감을 세션에 모아 둠 (INSERT 배치를 끊지 않도록 바로 실행하지 않음)
+ *    - UPDATE는 이전 팀과 새 팀을 비교해서 팀이 바뀐 경우에만 -1/+1
+ * 2. 플러시가 끝나면: 모은 증감을 팀 식별자 순서로 UPDATE TEAM SET MEMBER_COUNT = MEMBER_COUNT + ? (JDBC 배치)
+ *    - 값을 읽지 않고 데이터베이스에서 더하므로 동시에 같은 팀에 회원을 추가해도 잃어버리는 증감이 없음
+ *    - 팀 식별자 순서로 갱신해서 여러 팀을 바꾸는 트랜잭션끼리 교착 상태를 줄임
+ *    - 플러시 직후 반영하므로 같은 트랜잭션의 JPQL 벌크 연산(MemberRelations)과 순서가 맞음
+ * 3. 커밋 후: 바뀐 팀을 2차 캐시(team)에서 제거
+ *
+ * JPQL 벌크 연산과 직접 실행한 SQL(MemberUpserter)은 이 리스너를 거치지 않으므로 MemberCounts로 다시 계산
+ * 분리된 회원을 이전 상태 없이 수정(Session.update)하면 이전 팀을 알 수 없어서 반영하지 못함
+ */
+public class MemberCountListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+    FlushEventListener, AutoFlushEventListener {
+
+    private final Map<SessionImplementor, Pending> pending = new ConcurrentHashMap<>();
+
+    // 등록 시점(Integrator)에는 영속자가 아직 없으므로 첫 플러시에서 만듦
+    private volatile String incrementSql;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            add(event.getSession(), teamId(event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member) || event.getOldState() == null) {
+            return;
+        }
+        String before = teamId(event.getPersister(), event.getOldState());
+        String after = teamId(event.getPersister(), event.getState());
+        if (!Objects.equals(before, after)) {
+            add(event.getSession(), before, -1);
+            add(event.getSession(), after, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            add(event.getSession(), teamId(event.getPersister(), event.getDeletedState()), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) throws HibernateException {
+        apply(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) throws HibernateException {
+        apply(event.getSession());
+    }
+
+    private static String teamId(EntityPersister persister, Object[] state) {
+        Object team = state[persister.getEntityMetamodel().getPropertyIndex("team")];
+        return team == null ? null : ((Team) team).getId();
+    }
+
+    private void add(SessionImplementor session, String teamId, int delta) {
+        if (teamId == null) {
+            return;
+        }
+        pending.computeIfAbsent(session, this::register).deltas.merge(teamId, delta, Integer::sum);
+    }
+
+    /**
+     * 트랜잭션이 끝나면(커밋/롤백) 세션의 상태를 지우고, 커밋했으면 바뀐 팀을 2차 캐시에서 제거
+     */
+    private Pending register(SessionImplementor session) {
+        session.getActionQueue().registerProcess((success, completed) -> {
+            Pending removed = pending.remove(session);
+            if (success && removed != null) {
+                removed.touched.forEach(teamId -> completed.getFactory().getCache().evictEntityData(Team.class, teamId));
+            }
+        });
+        return new Pending();
+    }
+
+    private void apply(SessionImplementor session) {
+        Pending state = pending.get(session);
+        if (state == null || state.deltas.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> deltas = new TreeMap<>(state.deltas);
+        state.deltas.clear();
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String sql = incrementSql(session);
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+                    statement.setInt(1, entry.getValue());
+                    statement.setString(2, entry.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        state.touched.addAll(deltas.keySet());
+        deltas.keySet().forEach(teamId -> session.getFactory().getCache().evictEntityData(Team.class, teamId));
+    }
+
+    private String incrementSql(SessionImplementor session) {
+        String sql = incrementSql;
+        if (sql == null) {
+            sql = MemberCountSql.of(session.getFactory()).increment();
+            incrementSql = sql;
+        }
+        return sql;
+    }
+
+    private static class Pending {
+        private final Map<String, Integer> deltas = new TreeMap<>();
+        private final Set<String> touched = new HashSet<>();
+    }
+}
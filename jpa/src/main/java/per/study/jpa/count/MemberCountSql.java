@@ -0,0 +1,51 @@
+package per.study.jpa.count;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+/**
+ * MEMBER_COUNT를 갱신하는 SQL
+ * - 테이블/컬럼 이름은 매핑(엔티티 영속자)에서 가져옴 (매핑이나 명명 전략을 바꿔도 맞고, 대소문자를 구분하는 데이터베이스에서도 매핑과 같은 이름)
+ */
+final class MemberCountSql {
+
+    private final String teamTable;
+    private final String teamId;
+    private final String memberCount;
+    private final String memberTable;
+    private final String memberTeamId;
+
+    private MemberCountSql(SessionFactoryImplementor factory) {
+        AbstractEntityPersister team = (AbstractEntityPersister) factory.getMetamodel().entityPersister(Team.class);
+        AbstractEntityPersister member = (AbstractEntityPersister) factory.getMetamodel().entityPersister(Member.class);
+        this.teamTable = team.getTableName();
+        this.teamId = team.getIdentifierColumnNames()[0];
+        this.memberCount = team.getPropertyColumnNames("memberCount")[0];
+        this.memberTable = member.getTableName();
+        this.memberTeamId = member.getPropertyColumnNames("team")[0];
+    }
+
+    static MemberCountSql of(SessionFactoryImplementor factory) {
+        return new MemberCountSql(factory);
+    }
+
+    /**
+     * 파라미터: 증감, 팀 식별자
+     */
+    String increment() {
+        return "update " + teamTable + " set " + memberCount + " = " + memberCount + " + ? where " + teamId + " = ?";
+    }
+
+    String recountAll() {
+        return "update " + teamTable + " set " + memberCount + " = (select count(*) from " + memberTable + " m where m." + memberTeamId + " = " + teamTable + "." + teamId + ")";
+    }
+
+    /**
+     * 파라미터: teamIds
+     */
+    String recount() {
+        return recountAll() + " where " + teamId + " in (:teamIds)";
+    }
+}
@@ -0,0 +1,49 @@
+package per.study.jpa.count;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+/**
+ * TEAM.MEMBER_COUNT를 회원 테이블에서 다시 계산
+ * MemberCountListener를 거치지 않는 JPQL 벌크 연산이나 직접 실행한 SQL 뒤에 호출 (현재 트랜잭션에서 실행)
+ * - 팀 캐시(team)만 비우도록 대상 엔티티를 Team으로 지정 (지정하지 않으면 Hibernate가 2차 캐시 전체를 비움)
+ */
+public final class MemberCounts {
+
+    private MemberCounts() {}
+
+    /**
+     * @return 갱신한 팀 수
+     */
+    public static int recount(EntityManager em, Collection<String> teamIds) {
+        if (teamIds.isEmpty()) {
+            return 0;
+        }
+        // 대상이 Team뿐이라 자동 플러시되지 않는 회원 변경을 먼저 반영
+        em.flush();
+        return em.createNativeQuery(sql(em).recount())
+            .setParameter("teamIds", teamIds)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(Team.class)
+            .executeUpdate();
+    }
+
+    /**
+     * @return 갱신한 팀 수
+     */
+    public static int recountAll(EntityManager em) {
+        em.flush();
+        return em.createNativeQuery(sql(em).recountAll())
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(Team.class)
+            .executeUpdate();
+    }
+
+    private static MemberCountSql sql(EntityManager em) {
+        return MemberCountSql.of(em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class));
+    }
+}
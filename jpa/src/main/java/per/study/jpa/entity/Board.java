@@ -12,6 +12,8 @@ import javax.persistence.SequenceGenerator;
  * 51이 되면 시퀀스 값을 100으로 증가시킨 다음 51~100까지 메모리에서 식별자를 할당
  * 여러 JVM이 동시에 동작해도 기본 키 값이 충동하지 않는 장점
  * 데이터베이스에 직접 접근해서 데이터를 등록할 때 시퀀스 값이 한번에 많이 증가 한다는 점
+ *
+ * persistence.xml에서 StripedSequenceGenerator로 교체되어 per.study.jpa.id.block_size 단위로 예약함
  */
 @SequenceGenerator(
     name = "BOARD_SEQ_GENERATOR",
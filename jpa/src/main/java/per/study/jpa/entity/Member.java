@@ -1,18 +1,23 @@
 package per.study.jpa.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.proxy.HibernateProxy;
+
+import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
-import javax.persistence.Temporal;
-import javax.persistence.TemporalType;
 import javax.persistence.UniqueConstraint;
-import java.util.Date;
+import java.time.LocalDateTime;
 
 /**
  * DDL
@@ -23,6 +28,8 @@ import java.util.Date;
  * none: 자동 생성 기능 사용하지 않음
  */
 @Entity // 이 클래스를 테이블과 매핑한다고 JPA에게 알려줌
+@Cacheable // 팀의 회원 목록 캐시(team.members)는 식별자만 저장하므로 회원도 캐시해야 다시 조회하지 않음
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
 @Table(name = "JPA_MEMBER", // 엔티티 클래스에 매핑할 테이블 정보를 알려줌, 생략하면 엔티티 이름을 테이블 이름으로 매핑
     uniqueConstraints = {
         // 직접 DDL을 만든다면 사용할 이유가 없지만, 애플리케이션 개발자가 엔티티만 보고도 손쉽게 다양한 제약 조건을 파악할 수 있는 장점
@@ -42,17 +49,19 @@ public class Member {
     @Enumerated(EnumType.STRING)
     private RoleType roleType;
 
-    // ZondDateTime은 Temporal 사용 불가
-    @Temporal(TemporalType.TIMESTAMP)
-    private Date createdAt;
+    // java.time 타입은 @Temporal 없이 TIMESTAMP로 매핑
+    // Date는 변경 가능한 타입이라 변경 추적(enableDirtyTracking)을 사용해도 플러시할 때마다 스냅샷과 비교하므로 불변 타입 사용
+    private LocalDateTime createdAt;
 
-    @Temporal(TemporalType.TIMESTAMP)
-    private Date updatedAt;
+    private LocalDateTime updatedAt;
 
+    // 바이트코드 향상(build.gradle hibernate.enhance)으로 처음 접근할 때 따로 조회
+    // 목록 조회에서 LOB을 읽지 않고, 영속성 컨텍스트에도 올라가지 않음
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private String description;
 
-    @ManyToOne // 다대일 관계라는 매핑 정보
+    @ManyToOne(fetch = FetchType.LAZY) // 다대일 관계라는 매핑 정보, 기본값(EAGER)이면 회원을 조회할 때마다 팀을 함께 조회
     @JoinColumn(name = "TEAM_ID") // 외래 키를 매핑할 때 사용 (생략 가능)
     // referencedColumnName: 외래 키가 참조하는 대상 테이블의 컬럼명
     // foreignKey(DDL):      외래 키 제약 조건
@@ -91,6 +100,38 @@ public class Member {
         this.age = age;
     }
 
+    public RoleType getRoleType() {
+        return roleType;
+    }
+
+    public void setRoleType(RoleType roleType) {
+        this.roleType = roleType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
     public Team getTeam() {
         return team;
     }
@@ -99,8 +140,17 @@ public class Member {
         this.team = team;
     }
 
+    // description은 출력할 때마다 조회하지 않도록 제외
+    // 팀은 프록시를 초기화하지 않도록 식별자만 출력 (분리된 회원이나 팀이 없는 회원도 출력 가능)
     @Override
     public String toString() {
-        return "Member{" + "id='" + id + '\'' + ", username='" + username + '\'' + ", age=" + age + ", roleType=" + roleType + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", description='" + description + '\'' + ", team=" + team.getName() + '}';
+        return "Member{" + "id='" + id + '\'' + ", username='" + username + '\'' + ", age=" + age + ", roleType=" + roleType + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", teamId=" + teamId() + '}';
+    }
+
+    private Object teamId() {
+        if (team instanceof HibernateProxy) {
+            return ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return team == null ? null : team.getId();
     }
 }
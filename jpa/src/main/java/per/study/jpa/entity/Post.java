@@ -11,6 +11,8 @@ import javax.persistence.TableGenerator;
  * TABLE 전략은 값을 조회하면서 SELECT 쿼리를 사용하고 다음 값으로 증가시키기 위해 UPDATE 쿼리를 사용
  * SEQUENCE 전략과 비교해서 데이터베이스와 한 번 더 통신하는 단점
  * 최적화하려면 @TableGenerator.allocationSize를 사용
+ *
+ * persistence.xml에서 StripedTableGenerator로 교체되어 per.study.jpa.id.block_size 단위로 예약함
  */
 @TableGenerator(
     name = "POST_SEQ_GENERATOR",
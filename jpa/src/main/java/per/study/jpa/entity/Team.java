@@ -1,23 +1,61 @@
 package per.study.jpa.entity;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * ### N+1 없이 팀/회원 조회하기 ###
+ * 1. 엔티티 그래프(Team.members): em.find()나 JPQL에 힌트로 넘기면 members를 조인해서 한 번에 조회
+ * 2. 페치 조인: per.study.jpa.query.TeamQueries
+ * 3. 배치 페치(@BatchSize): 지연 로딩할 때 IN 절로 최대 100개의 팀(또는 팀의 members)을 한 번에 조회
+ *
+ * ### 2차 캐시 ###
+ * 팀은 자주 읽고 드물게 수정하므로 팀과 회원 목록을 2차 캐시(ehcache.xml의 team, team.members)에 저장
+ * READ_WRITE: 수정하는 동안 캐시 항목을 잠그고 커밋 후 갱신하므로 다른 트랜잭션이 수정 전 값을 읽지 않음
+ *
+ * ### 회원 수 ###
+ * 1. members는 EXTRA 지연 로딩: 초기화하기 전에는 size(), isEmpty(), contains()를 COUNT/존재 여부 쿼리로 확인
+ *    반복하거나 get(index)를 호출하면 그때 전체를 조회
+ * 2. MEMBER_COUNT: 회원을 등록/삭제하거나 팀을 바꾸면 플러시 직후 per.study.jpa.count.MemberCountListener가 증감
+ *    팀 한 행만 읽으면 되므로 자주 조회하는 회원 수는 getMemberCount() 또는 TeamQueries.memberCount() 사용
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
+@BatchSize(size = 100)
+@NamedEntityGraph(name = Team.WITH_MEMBERS, attributeNodes = @NamedAttributeNode("members"))
 public class Team {
 
+    public static final String WITH_MEMBERS = "Team.members";
+
     @Id
     @Column(name = "TEAM_ID")
     private String id;
     private String name;
 
     @OneToMany(mappedBy = "team") // 반대쪽 매핑의 필드 이름을 값으로 설정 (Member클래스 team 확인)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team.members")
+    @LazyCollection(LazyCollectionOption.EXTRA)
     private List<Member> members = new ArrayList<>();
 
+    // 엔티티를 수정할 때 덮어쓰지 않도록 updatable = false (증감은 MemberCountListener가 SQL로)
+    @Column(name = "MEMBER_COUNT", nullable = false, updatable = false)
+    private int memberCount;
+
     protected Team() {}
 
     public Team(String id, String name) {
@@ -49,6 +87,13 @@ public class Team {
         this.members = members;
     }
 
+    /**
+     * 팀을 조회한 시점의 회원 수 (이후 같은 영속성 컨텍스트에서 바뀐 회원은 em.refresh() 후 반영)
+     */
+    public int getMemberCount() {
+        return memberCount;
+    }
+
     @Override
     public String toString() {
         return "Team{" + "id='" + id + '\'' + ", name='" + name + '\'' + ", members=" + members + '}';
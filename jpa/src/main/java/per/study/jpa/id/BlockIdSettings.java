@@ -0,0 +1,79 @@
+package per.study.jpa.id;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.Stoppable;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * persistence.xml 설정
+ * - per.study.jpa.id.block_size: 한 번에 예약할 식별자 수 (기본값은 매핑의 allocationSize)
+ * - per.study.jpa.id.block_size.{시퀀스 이름 | pkColumnValue}: 생성기별로 덮어쓰기
+ * - per.study.jpa.id.stripes: 구간을 나눠 쓸 stripe 수 (기본값은 CPU 수)
+ * - per.study.jpa.id.prefetch_blocks: 미리 예약해 둘 구간 수 (기본값은 stripe 수)
+ */
+final class BlockIdSettings {
+
+    static final String BLOCK_SIZE = "per.study.jpa.id.block_size";
+    static final String STRIPES = "per.study.jpa.id.stripes";
+    static final String PREFETCH_BLOCKS = "per.study.jpa.id.prefetch_blocks";
+
+    private BlockIdSettings() {}
+
+    static int blockSize(ServiceRegistry serviceRegistry, String generatorName, int mappedSize) {
+        Map<?, ?> settings = settings(serviceRegistry);
+        int defaultSize = ConfigurationHelper.getInt(BLOCK_SIZE, settings, mappedSize);
+        return ConfigurationHelper.getInt(BLOCK_SIZE + "." + generatorName, settings, defaultSize);
+    }
+
+    static StripedIdAllocator allocator(ServiceRegistry serviceRegistry, String generatorName, IdBlockSource source) {
+        Map<?, ?> settings = settings(serviceRegistry);
+        int stripes = ConfigurationHelper.getInt(STRIPES, settings, Runtime.getRuntime().availableProcessors());
+        int prefetchBlocks = ConfigurationHelper.getInt(PREFETCH_BLOCKS, settings, stripes);
+
+        ExecutorService refiller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "id-block-refill-" + generatorName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        StripedIdAllocator allocator = new StripedIdAllocator(source, stripes, prefetchBlocks, refiller);
+        allocator.prefetch();
+        return allocator;
+    }
+
+    /**
+     * EntityManagerFactory를 닫기 시작할 때(커넥션 풀을 멈추기 전) 생성기를 멈춤
+     * Hibernate 5.6은 식별자 생성기의 Stoppable을 호출하지 않으므로 SessionFactoryObserver로 연결
+     */
+    static void stopOnClose(SessionFactoryImplementor sessionFactory, Stoppable generator) {
+        if (!(sessionFactory instanceof SessionFactoryImpl)) {
+            return;
+        }
+        ((SessionFactoryImpl) sessionFactory).addObserver(new SessionFactoryObserver() {
+            @Override
+            public void sessionFactoryCreated(SessionFactory factory) {
+            }
+
+            @Override
+            public void sessionFactoryClosing(SessionFactory factory) {
+                generator.stop();
+            }
+
+            @Override
+            public void sessionFactoryClosed(SessionFactory factory) {
+            }
+        });
+    }
+
+    private static Map<?, ?> settings(ServiceRegistry serviceRegistry) {
+        return serviceRegistry.getService(ConfigurationService.class).getSettings();
+    }
+}
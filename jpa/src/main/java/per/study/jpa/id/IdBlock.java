@@ -0,0 +1,36 @@
+package per.study.jpa.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 데이터베이스에서 예약한 식별자 구간 [start, end)
+ * - 구간 안에서는 CAS(getAndIncrement)만으로 식별자를 나눠줌
+ */
+public final class IdBlock {
+
+    static final long EXHAUSTED = Long.MIN_VALUE;
+
+    private final long end;
+    private final AtomicLong cursor;
+
+    public IdBlock(long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("empty id block [" + start + ", " + end + ")");
+        }
+        this.end = end;
+        this.cursor = new AtomicLong(start);
+    }
+
+    /**
+     * 구간을 모두 사용했으면 EXHAUSTED 반환
+     */
+    long next() {
+        long id = cursor.getAndIncrement();
+        return id < end ? id : EXHAUSTED;
+    }
+
+    @Override
+    public String toString() {
+        return "IdBlock{" + "cursor=" + cursor.get() + ", end=" + end + '}';
+    }
+}
@@ -0,0 +1,11 @@
+package per.study.jpa.id;
+
+/**
+ * 식별자 구간을 예약하는 저장소 (시퀀스, 키 생성 테이블)
+ * - 여러 JVM이 같은 데이터베이스를 사용해도 구간이 겹치지 않도록 데이터베이스에서 원자적으로 증가시켜야 함
+ */
+@FunctionalInterface
+public interface IdBlockSource {
+
+    IdBlock reserve();
+}
@@ -0,0 +1,145 @@
+package per.study.jpa.id;
+
+import org.hibernate.service.spi.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 락 없이 식별자를 나눠주는 구간 할당기
+ *
+ * 1. 스레드마다 stripe 하나를 골라 그 stripe의 현재 구간에서 CAS로 식별자를 꺼냄
+ * 2. 구간을 다 쓰면 미리 예약해 둔 구간(ready)으로 교체
+ * 3. ready가 prefetchBlocks보다 적어지면 백그라운드에서 구간을 예약 (INSERT 경로에서 DB 왕복 없음)
+ *    - 백그라운드 예약이 따라잡지 못한 경우에만 호출 스레드가 직접 예약
+ *
+ * 스레드마다 다른 구간을 사용하므로 식별자는 유일하지만 전역적으로 증가하는 순서는 아님
+ * 애플리케이션이 종료되면 사용하지 않은 구간만큼 식별자에 빈 곳이 생김
+ *
+ * stop(): 백그라운드 예약을 멈춤 (refiller가 ExecutorService면 종료하고 진행 중인 예약을 기다림)
+ * 이후 구간이 필요하면 호출 스레드가 직접 예약
+ */
+public class StripedIdAllocator implements Stoppable {
+
+    private static final Logger log = LoggerFactory.getLogger(StripedIdAllocator.class);
+
+    private final IdBlockSource source;
+    private final AtomicReferenceArray<IdBlock> stripes;
+    private final int mask;
+    private final int prefetchBlocks;
+    private final Executor refiller;
+
+    private final Queue<IdBlock> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readyCount = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    public StripedIdAllocator(IdBlockSource source, int stripes, int prefetchBlocks, Executor refiller) {
+        if (stripes < 1 || prefetchBlocks < 1) {
+            throw new IllegalArgumentException("stripes and prefetchBlocks must be positive");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.source = source;
+        this.stripes = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = this.stripes.length() - 1;
+        this.prefetchBlocks = prefetchBlocks;
+        this.refiller = refiller;
+    }
+
+    public long next() {
+        int index = stripeIndex();
+        while (true) {
+            IdBlock current = stripes.get(index);
+            if (current != null) {
+                long id = current.next();
+                if (id != IdBlock.EXHAUSTED) {
+                    return id;
+                }
+            }
+            IdBlock fresh = takeReadyBlock();
+            if (!stripes.compareAndSet(index, current, fresh)) {
+                // 다른 스레드가 먼저 교체했으면 예약한 구간을 버리지 않고 되돌려 놓음
+                ready.offer(fresh);
+                readyCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 첫 INSERT 전에 구간을 미리 채워 둠
+     */
+    public void prefetch() {
+        requestRefill();
+    }
+
+    @Override
+    public void stop() {
+        if (!(refiller instanceof ExecutorService)) {
+            return;
+        }
+        ExecutorService executor = (ExecutorService) refiller;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return 백그라운드 예약 스레드가 종료되었으면 true (ExecutorService가 아니면 항상 true)
+     */
+    boolean isTerminated() {
+        return !(refiller instanceof ExecutorService) || ((ExecutorService) refiller).isTerminated();
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        return Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+    }
+
+    private IdBlock takeReadyBlock() {
+        IdBlock block = ready.poll();
+        if (block != null) {
+            readyCount.decrementAndGet();
+        }
+        requestRefill();
+        return block != null ? block : source.reserve();
+    }
+
+    private void requestRefill() {
+        if (readyCount.get() >= prefetchBlocks || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refiller.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+        }
+    }
+
+    private void refill() {
+        try {
+            while (readyCount.get() < prefetchBlocks) {
+                ready.offer(source.reserve());
+                readyCount.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            // 다음 요청 때 다시 시도, 그동안은 호출 스레드가 직접 예약
+            log.warn("Failed to prefetch id block", e);
+        } finally {
+            refilling.set(false);
+        }
+    }
+}
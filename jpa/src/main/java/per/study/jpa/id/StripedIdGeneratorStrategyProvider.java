@@ -0,0 +1,23 @@
+package per.study.jpa.id;
+
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.jpa.spi.IdentifierGeneratorStrategyProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 엔티티 매핑(@SequenceGenerator, @TableGenerator)은 그대로 두고 생성기 구현만 교체
+ * - persistence.xml: hibernate.ejb.identifier_generator_strategy_provider
+ */
+public class StripedIdGeneratorStrategyProvider implements IdentifierGeneratorStrategyProvider {
+
+    @Override
+    public Map<String, Class<?>> getStrategies() {
+        Map<String, Class<?>> strategies = new HashMap<>();
+        strategies.put(SequenceStyleGenerator.class.getName(), StripedSequenceGenerator.class);
+        strategies.put(TableGenerator.class.getName(), StripedTableGenerator.class);
+        return strategies;
+    }
+}
@@ -0,0 +1,93 @@
+package per.study.jpa.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.Stoppable;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * SEQUENCE 전략(@SequenceGenerator)을 StripedIdAllocator로 처리하는 생성기
+ * - 시퀀스를 INCREMENT BY blockSize 로 생성하고 nextval 한 번으로 blockSize개의 식별자를 예약
+ * - 시퀀스 대신 테이블을 사용하는 데이터베이스(TableStructure)에서는 기본 동작(pooled-lo)을 그대로 사용
+ *
+ * 주의: 이미 만들어진 시퀀스의 INCREMENT BY 값과 blockSize가 같아야 구간이 겹치지 않음
+ */
+public class StripedSequenceGenerator extends SequenceStyleGenerator implements Stoppable {
+
+    private String sequenceName;
+    private int blockSize;
+    private Dialect dialect;
+    private volatile StripedIdAllocator allocator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        int mappedSize = ConfigurationHelper.getInt(INCREMENT_PARAM, params, DEFAULT_INCREMENT_SIZE);
+        blockSize = BlockIdSettings.blockSize(serviceRegistry, params.getProperty(SEQUENCE_PARAM), mappedSize);
+
+        // 기본 동작으로 돌아가도 같은 구간 규칙을 쓰도록 pooled-lo 지정
+        params.setProperty(INCREMENT_PARAM, String.valueOf(blockSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+
+        sequenceName = getDatabaseStructure().getName();
+        dialect = serviceRegistry.getService(JdbcEnvironment.class).getDialect();
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        if (!getDatabaseStructure().isPhysicalSequence()) {
+            return super.generate(session, object);
+        }
+        return allocator(session).next();
+    }
+
+    private StripedIdAllocator allocator(SharedSessionContractImplementor session) {
+        StripedIdAllocator current = allocator;
+        if (current == null) {
+            synchronized (this) {
+                current = allocator;
+                if (current == null) {
+                    ServiceRegistry serviceRegistry = session.getFactory().getServiceRegistry();
+                    IdBlockSource source = new SequenceBlockSource(
+                        serviceRegistry.getService(ConnectionProvider.class),
+                        dialect.getSequenceNextValString(sequenceName),
+                        blockSize
+                    );
+                    current = BlockIdSettings.allocator(serviceRegistry, sequenceName, source);
+                    allocator = current;
+                    BlockIdSettings.stopOnClose(session.getFactory(), this);
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return 첫 식별자를 만들기 전이면 null
+     */
+    StripedIdAllocator currentAllocator() {
+        return allocator;
+    }
+
+    /**
+     * 백그라운드 예약 스레드 종료 (EntityManagerFactory를 닫을 때)
+     */
+    @Override
+    public void stop() {
+        StripedIdAllocator current = allocator;
+        if (current != null) {
+            current.stop();
+        }
+    }
+}
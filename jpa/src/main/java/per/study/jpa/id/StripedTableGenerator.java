@@ -0,0 +1,90 @@
+package per.study.jpa.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.Stoppable;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * TABLE 전략(@TableGenerator)을 StripedIdAllocator로 처리하는 생성기
+ * - INSERT마다 하던 SELECT + UPDATE를 blockSize개마다 한 번, 그것도 백그라운드에서 수행
+ * - 키 생성 테이블의 한 행(pkColumnValue)에 몰리던 잠금 경합이 blockSize분의 1로 줄어듦
+ */
+public class StripedTableGenerator extends TableGenerator implements Stoppable {
+
+    private String tableName;
+    private String segmentColumn;
+    private String valueColumn;
+    private String segmentValue;
+    private long initialValue;
+    private int blockSize;
+    private volatile StripedIdAllocator allocator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        segmentValue = ConfigurationHelper.getString(SEGMENT_VALUE_PARAM, params, DEF_SEGMENT_VALUE);
+        int mappedSize = ConfigurationHelper.getInt(INCREMENT_PARAM, params, DEFAULT_INCREMENT_SIZE);
+        blockSize = BlockIdSettings.blockSize(serviceRegistry, segmentValue, mappedSize);
+
+        params.setProperty(INCREMENT_PARAM, String.valueOf(blockSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+
+        tableName = ConfigurationHelper.getString(TABLE_PARAM, params, DEF_TABLE);
+        segmentColumn = ConfigurationHelper.getString(SEGMENT_COLUMN_PARAM, params, DEF_SEGMENT_COLUMN);
+        valueColumn = ConfigurationHelper.getString(VALUE_COLUMN_PARAM, params, DEF_VALUE_COLUMN);
+        initialValue = ConfigurationHelper.getInt(INITIAL_PARAM, params, DEFAULT_INITIAL_VALUE);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        return allocator(session).next();
+    }
+
+    private StripedIdAllocator allocator(SharedSessionContractImplementor session) {
+        StripedIdAllocator current = allocator;
+        if (current == null) {
+            synchronized (this) {
+                current = allocator;
+                if (current == null) {
+                    ServiceRegistry serviceRegistry = session.getFactory().getServiceRegistry();
+                    IdBlockSource source = new TableBlockSource(
+                        serviceRegistry.getService(ConnectionProvider.class),
+                        tableName, segmentColumn, valueColumn, segmentValue, initialValue, blockSize
+                    );
+                    current = BlockIdSettings.allocator(serviceRegistry, segmentValue, source);
+                    allocator = current;
+                    BlockIdSettings.stopOnClose(session.getFactory(), this);
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return 첫 식별자를 만들기 전이면 null
+     */
+    StripedIdAllocator currentAllocator() {
+        return allocator;
+    }
+
+    /**
+     * 백그라운드 예약 스레드 종료 (EntityManagerFactory를 닫을 때)
+     */
+    @Override
+    public void stop() {
+        StripedIdAllocator current = allocator;
+        if (current != null) {
+            current.stop();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package per.study.jpa.id;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.id.IdentifierGenerationException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * 키 생성 테이블(MY_SEQUENCES)에서 구간을 예약
+ * - SELECT 후 "현재 값이 그대로일 때만" UPDATE 해서 next_val을 blockSize만큼 증가 (낙관적 갱신)
+ * - UPDATE가 0건이면 다른 JVM이 먼저 예약한 것이므로 다시 시도
+ * - 테이블 행을 증가시키는 크기가 예약 크기이므로 blockSize를 바꿔도 구간이 겹치지 않음
+ * - 행이 없으면 세이브포인트 안에서 INSERT: 실패해도 그 부분만 롤백하고 같은 트랜잭션에서 다시 조회
+ *   (PostgreSQL처럼 오류가 난 트랜잭션의 이후 문장을 모두 거부하는 데이터베이스 대비)
+ */
+class TableBlockSource implements IdBlockSource {
+
+    private final ConnectionProvider connectionProvider;
+    private final String segmentValue;
+    private final long initialValue;
+    private final int blockSize;
+
+    private final String selectSql;
+    private final String insertSql;
+    private final String updateSql;
+
+    TableBlockSource(ConnectionProvider connectionProvider, String tableName, String segmentColumn, String valueColumn,
+                     String segmentValue, long initialValue, int blockSize) {
+        this.connectionProvider = connectionProvider;
+        this.segmentValue = segmentValue;
+        this.initialValue = initialValue;
+        this.blockSize = blockSize;
+        this.selectSql = "select " + valueColumn + " from " + tableName + " where " + segmentColumn + " = ?";
+        this.insertSql = "insert into " + tableName + " (" + segmentColumn + ", " + valueColumn + ") values (?, ?)";
+        this.updateSql = "update " + tableName + " set " + valueColumn + " = ? where " + segmentColumn + " = ? and " + valueColumn + " = ?";
+    }
+
+    @Override
+    public IdBlock reserve() {
+        try {
+            Connection connection = connectionProvider.getConnection();
+            boolean autoCommit = connection.getAutoCommit();
+            try {
+                connection.setAutoCommit(false);
+                IdBlock block = reserve(connection);
+                connection.commit();
+                return block;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+                connectionProvider.closeConnection(connection);
+            }
+        } catch (SQLException e) {
+            throw new IdentifierGenerationException("Could not reserve id block from segment " + segmentValue, e);
+        }
+    }
+
+    private IdBlock reserve(Connection connection) throws SQLException {
+        while (true) {
+            Long current = select(connection);
+            if (current == null) {
+                insertInitialValue(connection);
+                continue;
+            }
+            try (PreparedStatement update = connection.prepareStatement(updateSql)) {
+                update.setLong(1, current + blockSize);
+                update.setString(2, segmentValue);
+                update.setLong(3, current);
+                if (update.executeUpdate() == 1) {
+                    return new IdBlock(current, current + blockSize);
+                }
+            }
+        }
+    }
+
+    private Long select(Connection connection) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(selectSql)) {
+            select.setString(1, segmentValue);
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : null;
+            }
+        }
+    }
+
+    private void insertInitialValue(Connection connection) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try (PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            insert.setString(1, segmentValue);
+            insert.setLong(2, initialValue);
+            insert.executeUpdate();
+        } catch (SQLException e) {
+            connection.rollback(savepoint);
+            // 다른 JVM이 먼저 행을 만든 경우, 다음 SELECT에서 그 값을 사용
+            if (select(connection) == null) {
+                throw e;
+            }
+            return;
+        }
+        connection.releaseSavepoint(savepoint);
+    }
+}
@@ -0,0 +1,38 @@
+package per.study.jpa.query;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * ### 회원 목록 프로젝션 ###
+ * select m from Member m 은 모든 컬럼을 읽고 회원마다 엔티티와 스냅샷을 영속성 컨텍스트에 보관함
+ * 목록에 필요한 컬럼만 조회하면 데이터베이스에서 읽는 바이트와 행마다 들고 있는 메모리가 줄어듦
+ *
+ * 반환한 쿼리는 QueryStreamer로 커서 조회할 수 있음
+ */
+public final class MemberQueries {
+
+    private MemberQueries() {}
+
+    /**
+     * 팀 이름으로 회원 이름만 조회
+     */
+    public static TypedQuery<String> usernamesByTeam(EntityManager em, String teamName) {
+        return em.createQuery("select m.username from Member m join m.team t where t.name = :teamName order by m.id", String.class)
+            .setParameter("teamName", teamName);
+    }
+
+    /**
+     * 팀 이름으로 회원 요약(id, 이름, 나이, 팀 이름)을 조회
+     */
+    public static TypedQuery<MemberSummary> summariesByTeam(EntityManager em, String teamName) {
+        return em.createQuery("select new per.study.jpa.query.MemberSummary(m.id, m.username, m.age, t.name)"
+                + " from Member m join m.team t where t.name = :teamName order by m.id", MemberSummary.class)
+            .setParameter("teamName", teamName);
+    }
+
+    public static List<MemberSummary> findSummariesByTeam(EntityManager em, String teamName) {
+        return summariesByTeam(em, teamName).getResultList();
+    }
+}
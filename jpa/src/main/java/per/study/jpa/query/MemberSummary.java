@@ -0,0 +1,41 @@
+package per.study.jpa.query;
+
+/**
+ * 회원 목록에 필요한 컬럼만 담는 DTO (엔티티가 아니므로 영속성 컨텍스트에 올라가지 않음)
+ * - JPQL 생성자 표현식: select new per.study.jpa.query.MemberSummary(...)
+ */
+public class MemberSummary {
+
+    private final String id;
+    private final String username;
+    private final Integer age;
+    private final String teamName;
+
+    public MemberSummary(String id, String username, Integer age, String teamName) {
+        this.id = id;
+        this.username = username;
+        this.age = age;
+        this.teamName = teamName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    @Override
+    public String toString() {
+        return "MemberSummary{" + "id='" + id + '\'' + ", username='" + username + '\'' + ", age=" + age + ", teamName='" + teamName + '\'' + '}';
+    }
+}
@@ -0,0 +1,81 @@
+package per.study.jpa.query;
+
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.Query;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * ### 스트리밍 조회 ###
+ * getResultList()는 결과 전체를 리스트로 만들고, 조회한 엔티티와 스냅샷을 영속성 컨텍스트에 모두 보관
+ *
+ * 1. 커서: ScrollMode.FORWARD_ONLY + fetchSize 만큼씩 데이터베이스에서 가져옴
+ *    - MySQL은 fetchSize가 Integer.MIN_VALUE일 때만 행 단위로 스트리밍
+ * 2. 읽기 전용: 스냅샷을 만들지 않음 (변경 감지 대상이 아님)
+ * 3. 준영속: 처리한 엔티티를 detachInterval건마다 영속성 컨텍스트에서 분리
+ *    - 조회 결과 수와 상관없이 영속성 컨텍스트 크기가 일정하게 유지
+ *    - 분리된 엔티티의 지연 로딩은 동작하지 않으므로 action 안에서 필요한 값을 사용해야 함
+ */
+public class QueryStreamer {
+
+    private final int fetchSize;
+    private final int detachInterval;
+
+    public QueryStreamer(int fetchSize, int detachInterval) {
+        if (fetchSize == 0 || detachInterval < 1) {
+            throw new IllegalArgumentException("fetchSize must not be 0 and detachInterval must be positive");
+        }
+        this.fetchSize = fetchSize;
+        this.detachInterval = detachInterval;
+    }
+
+    /**
+     * @return 처리한 행 수
+     */
+    @SuppressWarnings("unchecked")
+    public <T> long forEach(EntityManager em, TypedQuery<T> query, Consumer<? super T> action) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        Query<T> hibernateQuery = query.unwrap(Query.class);
+        hibernateQuery.setFetchSize(fetchSize);
+        hibernateQuery.setReadOnly(true);
+        hibernateQuery.setCacheMode(CacheMode.IGNORE);
+
+        List<Object> processed = new ArrayList<>(detachInterval);
+        long count = 0;
+        ScrollableResults results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (results.next()) {
+                T row = (T) results.get(0);
+                action.accept(row);
+                processed.add(row);
+                count++;
+                if (processed.size() == detachInterval) {
+                    detach(session, processed);
+                }
+            }
+            detach(session, processed);
+        } finally {
+            results.close();
+        }
+        return count;
+    }
+
+    private void detach(SessionImplementor session, List<Object> processed) {
+        PersistenceContext persistenceContext = session.getPersistenceContext();
+        for (Object row : processed) {
+            // 프로젝션(DTO, 스칼라)은 영속성 컨텍스트에 없으므로 건너뜀
+            if (row != null && persistenceContext.getEntry(row) != null) {
+                session.evict(row);
+            }
+        }
+        processed.clear();
+    }
+}
@@ -0,0 +1,70 @@
+package per.study.jpa.query;
+
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ### 팀/회원 페치 전략 ###
+ * 연관관계를 지연 로딩하면서 반복문으로 접근하면 컬렉션마다 쿼리가 한 번씩 나감 (N+1)
+ * 미리 필요한 연관관계를 정해서 한 번의 쿼리로 조회
+ */
+public final class TeamQueries {
+
+    private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+    // 페치 조인으로 중복된 팀을 애플리케이션에서만 제거하고 SQL에는 distinct를 전달하지 않음
+    private static final String PASS_DISTINCT_THROUGH = "hibernate.query.passDistinctThrough";
+
+    private TeamQueries() {}
+
+    /**
+     * 엔티티 그래프(Team.members)로 팀과 회원을 한 번에 조회
+     */
+    public static Team findWithMembers(EntityManager em, String teamId) {
+        Map<String, Object> hints = Map.of(FETCH_GRAPH, em.getEntityGraph(Team.WITH_MEMBERS));
+        return em.find(Team.class, teamId, hints);
+    }
+
+    /**
+     * 여러 팀과 각 팀의 회원을 페치 조인으로 한 번에 조회
+     */
+    public static List<Team> findAllWithMembers(EntityManager em, Collection<String> teamIds) {
+        return em.createQuery("select distinct t from Team t left join fetch t.members where t.id in :teamIds", Team.class)
+            .setParameter("teamIds", teamIds)
+            .setHint(PASS_DISTINCT_THROUGH, false)
+            .getResultList();
+    }
+
+    /**
+     * 회원과 같은 팀의 회원을 한 번에 조회 (회원 -> 팀 -> 회원 목록)
+     */
+    public static Member findWithTeammates(EntityManager em, String memberId) {
+        return em.createQuery("select distinct m from Member m join fetch m.team t left join fetch t.members where m.id = :memberId", Member.class)
+            .setParameter("memberId", memberId)
+            .setHint(PASS_DISTINCT_THROUGH, false)
+            .getSingleResult();
+    }
+
+    /**
+     * 팀 이름으로 회원과 팀을 함께 조회 (회원마다 팀을 다시 조회하지 않음)
+     */
+    public static List<Member> findMembersWithTeam(EntityManager em, String teamName) {
+        return em.createQuery("select m from Member m join fetch m.team t where t.name = :teamName", Member.class)
+            .setParameter("teamName", teamName)
+            .getResultList();
+    }
+
+    /**
+     * 팀의 회원 수: TEAM.MEMBER_COUNT 한 행만 조회하고 회원 컬렉션은 읽지 않음 (MemberCountListener가 유지)
+     * 아직 플러시하지 않은 회원 변경은 포함되지 않음
+     */
+    public static int memberCount(EntityManager em, String teamId) {
+        return em.createQuery("select t.memberCount from Team t where t.id = :teamId", Integer.class)
+            .setParameter("teamId", teamId)
+            .getSingleResult();
+    }
+}
@@ -0,0 +1,186 @@
+package per.study.jpa.schema;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.jdbc.connections.spi.JdbcConnectionAccess;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hibernate.tool.schema.SourceType;
+import org.hibernate.tool.schema.TargetType;
+import org.hibernate.tool.schema.internal.HibernateSchemaManagementTool;
+import org.hibernate.tool.schema.internal.exec.ScriptTargetOutputToWriter;
+import org.hibernate.tool.schema.spi.DelayedDropAction;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaCreator;
+import org.hibernate.tool.schema.spi.SchemaDropper;
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.hibernate.tool.schema.spi.ScriptTargetOutput;
+import org.hibernate.tool.schema.spi.SourceDescriptor;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * 스키마가 바뀌지 않았으면 hbm2ddl(create)을 건너뛰는 스키마 관리 도구 (hibernate.schema_management_tool)
+ *
+ * 1. 매핑으로 만든 CREATE 스크립트의 SHA-256을 지문으로 사용 (엔티티, 컬럼, 제약 조건, 방언이 바뀌면 지문도 바뀜)
+ * 2. 데이터베이스의 SCHEMA_FINGERPRINT 테이블에 저장된 지문과 같으면 DROP/CREATE를 모두 건너뜀
+ * 3. 다르면 Hibernate 기본 도구로 DROP/CREATE 후 지문을 저장
+ *
+ * - 파일이나 서버 데이터베이스처럼 재시작해도 남는 경우에 효과가 있음, 메모리 데이터베이스는 항상 새로 만듦
+ * - 건너뛰면 이전 실행의 데이터가 그대로 남음 (import 스크립트도 다시 실행하지 않음)
+ * - create-drop으로 종료할 때 테이블을 지우면 지문도 함께 지움
+ */
+public class FingerprintSchemaManagementTool extends HibernateSchemaManagementTool {
+
+    private static final Logger log = LoggerFactory.getLogger(FingerprintSchemaManagementTool.class);
+
+    static final String TABLE = "SCHEMA_FINGERPRINT";
+
+    private ServiceRegistryImplementor serviceRegistry;
+
+    @Override
+    public void injectServices(ServiceRegistryImplementor serviceRegistry) {
+        super.injectServices(serviceRegistry);
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public SchemaCreator getSchemaCreator(Map options) {
+        SchemaCreator creator = super.getSchemaCreator(options);
+        return (metadata, executionOptions, source, target) -> {
+            if (!appliesTo(source, target)) {
+                creator.doCreation(metadata, executionOptions, source, target);
+                return;
+            }
+            String fingerprint = fingerprint(creator, metadata, executionOptions, source);
+            if (fingerprint.equals(storedFingerprint())) {
+                log.info("Schema unchanged (fingerprint {}), skipping schema creation", fingerprint);
+                return;
+            }
+            creator.doCreation(metadata, executionOptions, source, target);
+            storeFingerprint(fingerprint);
+        };
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public SchemaDropper getSchemaDropper(Map options) {
+        SchemaDropper dropper = super.getSchemaDropper(options);
+        SchemaCreator creator = super.getSchemaCreator(options);
+        return new SchemaDropper() {
+            @Override
+            public void doDrop(Metadata metadata, ExecutionOptions executionOptions, SourceDescriptor source, TargetDescriptor target) {
+                if (appliesTo(source, target)
+                    && fingerprint(creator, metadata, executionOptions, source).equals(storedFingerprint())) {
+                    return;
+                }
+                dropper.doDrop(metadata, executionOptions, source, target);
+                if (target.getTargetTypes().contains(TargetType.DATABASE)) {
+                    storeFingerprint(null);
+                }
+            }
+
+            @Override
+            public DelayedDropAction buildDelayedAction(Metadata metadata, ExecutionOptions executionOptions, SourceDescriptor source) {
+                DelayedDropAction action = dropper.buildDelayedAction(metadata, executionOptions, source);
+                return registry -> {
+                    action.perform(registry);
+                    storeFingerprint(null);
+                };
+            }
+        };
+    }
+
+    private static boolean appliesTo(SourceDescriptor source, TargetDescriptor target) {
+        return source.getSourceType() == SourceType.METADATA && target.getTargetTypes().contains(TargetType.DATABASE);
+    }
+
+    private static String fingerprint(SchemaCreator creator, Metadata metadata, ExecutionOptions options, SourceDescriptor source) {
+        StringWriter script = new StringWriter();
+        ScriptTargetOutput output = new ScriptTargetOutputToWriter(script);
+        creator.doCreation(metadata, options, source, new TargetDescriptor() {
+            @Override
+            public EnumSet<TargetType> getTargetTypes() {
+                return EnumSet.of(TargetType.SCRIPT);
+            }
+
+            @Override
+            public ScriptTargetOutput getScriptTargetOutput() {
+                return output;
+            }
+        });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(script.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String storedFingerprint() {
+        return withConnection(connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("select FINGERPRINT from " + TABLE + " where ID = 1")) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        });
+    }
+
+    /**
+     * @param fingerprint null이면 저장된 지문을 지움
+     */
+    private void storeFingerprint(String fingerprint) {
+        withConnection(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("delete from " + TABLE);
+            }
+            if (fingerprint != null) {
+                try (PreparedStatement statement = connection.prepareStatement("insert into " + TABLE + " (ID, FINGERPRINT) values (1, ?)")) {
+                    statement.setString(1, fingerprint);
+                    statement.executeUpdate();
+                }
+            }
+            return null;
+        });
+    }
+
+    private <T> T withConnection(ConnectionWork<T> work) {
+        JdbcConnectionAccess access = serviceRegistry.getService(JdbcServices.class).getBootstrapJdbcConnectionAccess();
+        try {
+            Connection connection = access.obtainConnection();
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("create table if not exists " + TABLE + " (ID integer not null primary key, FINGERPRINT varchar(64) not null)");
+                }
+                T result = work.execute(connection);
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                return result;
+            } finally {
+                access.releaseConnection(connection);
+            }
+        } catch (SQLException e) {
+            throw new SchemaManagementException("Failed to access " + TABLE, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionWork<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+}
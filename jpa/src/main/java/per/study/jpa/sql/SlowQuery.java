@@ -0,0 +1,54 @@
+package per.study.jpa.sql;
+
+import java.time.Instant;
+
+/**
+ * 느린 SQL 한 건 (파라미터 값은 기록하지 않음)
+ */
+public class SlowQuery {
+
+    private final Instant time;
+    private final String dataSource;
+    private final String sql;
+    private final long elapsedMicros;
+    private final int batchSize;
+    private final String thread;
+
+    SlowQuery(Instant time, String dataSource, String sql, long elapsedMicros, int batchSize, String thread) {
+        this.time = time;
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.elapsedMicros = elapsedMicros;
+        this.batchSize = batchSize;
+        this.thread = thread;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getElapsedMicros() {
+        return elapsedMicros;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowQuery{" + "time=" + time + ", dataSource='" + dataSource + '\'' + ", elapsedMicros=" + elapsedMicros + ", batchSize=" + batchSize + ", thread='" + thread + '\'' + ", sql='" + sql + '\'' + '}';
+    }
+}
@@ -0,0 +1,51 @@
+package per.study.jpa.sql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 최근 느린 SQL을 보관하는 고정 크기 링 버퍼
+ * - 기록은 락 없이 슬롯 하나를 덮어씀 (가득 차면 가장 오래된 항목부터 사라짐)
+ * - 조회(snapshot)할 때만 정렬
+ */
+public class SlowQueryLog {
+
+    private final AtomicReferenceArray<SlowQuery> slots;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public SlowQueryLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    void record(SlowQuery query) {
+        slots.set((int) (cursor.getAndIncrement() % slots.length()), query);
+    }
+
+    /**
+     * @return 보관 중인 느린 SQL (최근 순)
+     */
+    public List<SlowQuery> snapshot() {
+        List<SlowQuery> queries = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SlowQuery query = slots.get(i);
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        queries.sort(Comparator.comparing(SlowQuery::getTime).reversed());
+        return queries;
+    }
+
+    /**
+     * 지금까지 기록된 느린 SQL 수 (버퍼에서 밀려난 것 포함)
+     */
+    public long total() {
+        return cursor.get();
+    }
+}
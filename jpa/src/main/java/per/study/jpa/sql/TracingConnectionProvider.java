@@ -0,0 +1,78 @@
+package per.study.jpa.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hibernate 기본 커넥션 풀에 SqlTracer를 연결 (hibernate.connection.provider_class)
+ * - 풀에서 꺼낸 커넥션을 감싸서 돌려주고, 반납할 때는 원래 커넥션을 풀에 넣음
+ * - jdbc.connection.acquire: 풀에서 커넥션을 꺼내는 데 걸린 시간
+ * - 메트릭은 Metrics.globalRegistry에 기록 (레지스트리를 추가해야 값이 남음)
+ *
+ * 설정
+ * - per.study.jpa.sql.slow_threshold_ms: 이 시간 이상 걸린 SQL을 SlowQueryLog에 보관 (기본 100)
+ * - per.study.jpa.sql.slow_log_size: 보관할 느린 SQL 수 (기본 256)
+ */
+public class TracingConnectionProvider extends DriverManagerConnectionProviderImpl {
+
+    public static final String SLOW_THRESHOLD_MS = "per.study.jpa.sql.slow_threshold_ms";
+    public static final String SLOW_LOG_SIZE = "per.study.jpa.sql.slow_log_size";
+
+    private SqlTracer tracer;
+    private Timer acquire;
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void configure(Map configurationValues) {
+        super.configure(configurationValues);
+        MeterRegistry meterRegistry = Metrics.globalRegistry;
+        String name = Objects.toString(configurationValues.get(AvailableSettings.PERSISTENCE_UNIT_NAME), "default");
+        Duration slowThreshold = Duration.ofMillis(ConfigurationHelper.getInt(SLOW_THRESHOLD_MS, configurationValues, 100));
+        SlowQueryLog slowQueryLog = new SlowQueryLog(ConfigurationHelper.getInt(SLOW_LOG_SIZE, configurationValues, 256));
+
+        this.tracer = new SqlTracer(meterRegistry, name, slowThreshold, slowQueryLog);
+        this.acquire = Timer.builder("jdbc.connection.acquire")
+            .description("Time to check out a connection from the pool")
+            .tag("datasource", name)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        acquire.record(Duration.ofNanos(System.nanoTime() - start));
+        return tracer.wrap(connection);
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        super.closeConnection(SqlTracer.unwrap(connection));
+    }
+
+    public SqlTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * @return emf가 사용하는 SqlTracer, TracingConnectionProvider를 사용하지 않으면 null
+     */
+    public static SqlTracer tracer(EntityManagerFactory emf) {
+        ConnectionProvider provider = emf.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(ConnectionProvider.class);
+        return provider instanceof TracingConnectionProvider ? ((TracingConnectionProvider) provider).getTracer() : null;
+    }
+}
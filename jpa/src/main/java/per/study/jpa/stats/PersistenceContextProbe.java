@@ -0,0 +1,139 @@
+package per.study.jpa.stats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ### 영속성 컨텍스트 계측 ###
+ * 트랜잭션이 끝날 때마다 영속성 컨텍스트 상태를 TransactionSummary로 만들어 메트릭으로 기록하고 summaryListener에 전달
+ *
+ * - jpa.persistence.context.managed.entities (entity): 관리 중인 엔티티 수
+ * - jpa.persistence.context.snapshot.bytes: 스냅샷 메모리 추정치
+ * - jpa.persistence.context.flushes: 플러시 횟수
+ * - jpa.persistence.context.dirty.check: 변경 감지 시간 (트랜잭션 단위 합계)
+ * - jpa.persistence.context.updated.entities: 변경 감지로 UPDATE 대상이 된 엔티티 수
+ *
+ * 엔티티 수와 스냅샷 크기는 트랜잭션이 끝날 때 한 번만 계산하고, 그 외에는 카운터만 증가시킴
+ */
+public class PersistenceContextProbe extends BaseSessionEventListener {
+
+    private static final String PREFIX = "jpa.persistence.context.";
+
+    private final SessionImplementor session;
+    private final MeterRegistry registry;
+    private final Consumer<TransactionSummary> summaryListener;
+
+    private int flushes;
+    private int dirtyChecks;
+    private int updatedEntities;
+    private long dirtyCheckNanos;
+    private long dirtyCheckStart;
+    private TransactionSummary lastSummary;
+
+    private PersistenceContextProbe(SessionImplementor session, MeterRegistry registry, Consumer<TransactionSummary> summaryListener) {
+        this.session = session;
+        this.registry = registry;
+        this.summaryListener = summaryListener;
+    }
+
+    public static PersistenceContextProbe attach(EntityManager em, MeterRegistry registry, Consumer<TransactionSummary> summaryListener) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        PersistenceContextProbe probe = new PersistenceContextProbe(session, registry, summaryListener);
+        session.addEventListeners(probe);
+        return probe;
+    }
+
+    public static PersistenceContextProbe attach(EntityManager em, MeterRegistry registry) {
+        return attach(em, registry, summary -> {});
+    }
+
+    /**
+     * 마지막으로 끝난 트랜잭션의 결과 (아직 없으면 null)
+     */
+    public TransactionSummary getLastSummary() {
+        return lastSummary;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushes++;
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        flushes++;
+    }
+
+    @Override
+    public void dirtyCalculationStart() {
+        dirtyCheckStart = System.nanoTime();
+    }
+
+    @Override
+    public void dirtyCalculationEnd(boolean dirty) {
+        dirtyCheckNanos += System.nanoTime() - dirtyCheckStart;
+        dirtyChecks++;
+        if (dirty) {
+            updatedEntities++;
+        }
+    }
+
+    @Override
+    public void transactionCompletion(boolean successful) {
+        Map<String, Integer> managedEntities = new HashMap<>();
+        long snapshotBytes = 0;
+        PersistenceContext persistenceContext = session.getPersistenceContext();
+        for (Map.Entry<Object, EntityEntry> entry : persistenceContext.reentrantSafeEntityEntries()) {
+            EntityEntry entityEntry = entry.getValue();
+            managedEntities.merge(simpleName(entityEntry.getEntityName()), 1, Integer::sum);
+            snapshotBytes += SnapshotSizeEstimator.estimate(entityEntry.getLoadedState());
+        }
+
+        TransactionSummary summary = new TransactionSummary(successful, managedEntities, snapshotBytes,
+            flushes, dirtyCheckNanos, dirtyChecks, updatedEntities);
+        record(summary);
+        lastSummary = summary;
+        reset();
+        summaryListener.accept(summary);
+    }
+
+    private void record(TransactionSummary summary) {
+        summary.getManagedEntities().forEach((entityName, count) ->
+            DistributionSummary.builder(PREFIX + "managed.entities")
+                .tag("entity", entityName)
+                .register(registry)
+                .record(count)
+        );
+        DistributionSummary.builder(PREFIX + "snapshot.bytes")
+            .baseUnit("bytes")
+            .register(registry)
+            .record(summary.getEstimatedSnapshotBytes());
+        registry.counter(PREFIX + "flushes").increment(summary.getFlushes());
+        Timer.builder(PREFIX + "dirty.check")
+            .register(registry)
+            .record(summary.getDirtyCheckNanos(), TimeUnit.NANOSECONDS);
+        registry.counter(PREFIX + "updated.entities").increment(summary.getUpdatedEntities());
+    }
+
+    private void reset() {
+        flushes = 0;
+        dirtyChecks = 0;
+        updatedEntities = 0;
+        dirtyCheckNanos = 0;
+    }
+
+    private static String simpleName(String entityName) {
+        return entityName.substring(entityName.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,53 @@
+package per.study.jpa.stats;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * 스냅샷(EntityEntry.getLoadedState()) 크기를 대략 계산
+ * - 64비트 JVM, 압축 포인터 기준 (객체 헤더 12~16바이트, 참조 4바이트)
+ * - 다른 엔티티, 컬렉션, enum은 스냅샷이 참조만 하므로 참조 크기만 계산
+ * - 정확한 값이 아니라 영속성 컨텍스트가 커지는 추세를 보기 위한 값
+ */
+final class SnapshotSizeEstimator {
+
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ENTITY_ENTRY = 96;
+
+    private SnapshotSizeEstimator() {}
+
+    static long estimate(Object[] loadedState) {
+        if (loadedState == null) {
+            // 읽기 전용 엔티티는 스냅샷이 없음
+            return ENTITY_ENTRY;
+        }
+        long size = ENTITY_ENTRY + ARRAY_HEADER + (long) REFERENCE * loadedState.length;
+        for (Object value : loadedState) {
+            size += valueSize(value);
+        }
+        return size;
+    }
+
+    private static long valueSize(Object value) {
+        if (value instanceof String) {
+            // String 객체 24 + byte[] 헤더 16 + 문자 수 (Latin-1이 아니면 2배)
+            return 40 + ((String) value).length() * 2L;
+        }
+        if (value instanceof Long || value instanceof Double || value instanceof Date) {
+            return 24;
+        }
+        if (value instanceof LocalDateTime) {
+            // LocalDateTime + LocalDate + LocalTime
+            return 72;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16;
+        }
+        if (value instanceof byte[]) {
+            return ARRAY_HEADER + ((byte[]) value).length;
+        }
+        // null, enum, 연관된 엔티티, 컬렉션은 참조만 함
+        return 0;
+    }
+}
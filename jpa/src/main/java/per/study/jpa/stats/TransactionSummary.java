@@ -0,0 +1,85 @@
+package per.study.jpa.stats;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트랜잭션 하나가 끝났을 때의 영속성 컨텍스트 상태
+ */
+public class TransactionSummary {
+
+    private final boolean committed;
+    private final Map<String, Integer> managedEntities;
+    private final long estimatedSnapshotBytes;
+    private final int flushes;
+    private final long dirtyCheckNanos;
+    private final int dirtyChecks;
+    private final int updatedEntities;
+
+    TransactionSummary(boolean committed, Map<String, Integer> managedEntities, long estimatedSnapshotBytes,
+                       int flushes, long dirtyCheckNanos, int dirtyChecks, int updatedEntities) {
+        this.committed = committed;
+        this.managedEntities = Map.copyOf(managedEntities);
+        this.estimatedSnapshotBytes = estimatedSnapshotBytes;
+        this.flushes = flushes;
+        this.dirtyCheckNanos = dirtyCheckNanos;
+        this.dirtyChecks = dirtyChecks;
+        this.updatedEntities = updatedEntities;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * 엔티티 이름별 관리 중인 엔티티 수
+     */
+    public Map<String, Integer> getManagedEntities() {
+        return managedEntities;
+    }
+
+    public int getManagedEntityCount() {
+        return managedEntities.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * 스냅샷(엔티티를 처음 읽었을 때의 값)이 차지하는 대략적인 메모리
+     */
+    public long getEstimatedSnapshotBytes() {
+        return estimatedSnapshotBytes;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * 변경 감지(스냅샷 비교)에 걸린 시간 합계
+     */
+    public long getDirtyCheckMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dirtyCheckNanos);
+    }
+
+    public long getDirtyCheckNanos() {
+        return dirtyCheckNanos;
+    }
+
+    /**
+     * 변경 감지를 수행한 엔티티 수 (플러시마다 관리 중인 엔티티 전체)
+     */
+    public int getDirtyChecks() {
+        return dirtyChecks;
+    }
+
+    /**
+     * 변경 감지 결과 UPDATE 대상이 된 엔티티 수
+     */
+    public int getUpdatedEntities() {
+        return updatedEntities;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionSummary{" + "committed=" + committed + ", managedEntities=" + managedEntities + ", estimatedSnapshotBytes=" + estimatedSnapshotBytes + ", flushes=" + flushes + ", dirtyChecks=" + dirtyChecks + ", dirtyCheckMillis=" + getDirtyCheckMillis() + ", updatedEntities=" + updatedEntities + '}';
+    }
+}
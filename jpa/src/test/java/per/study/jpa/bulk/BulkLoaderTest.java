@@ -0,0 +1,143 @@
+package per.study.jpa.bulk;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class BulkLoaderTest {
+
+    private static final int WINDOW_SIZE = 4;
+
+    private EntityManagerFactory emf;
+    private BulkLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        emf = Persistence.createEntityManagerFactory("jpabook", Map.of(
+            AvailableSettings.GENERATE_STATISTICS, "true",
+            AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, FlushSizeListener.class.getName()
+        ));
+        loader = new BulkLoader(emf, 2, WINDOW_SIZE);
+        loader.loadTeams(List.of(new Team("team1", "팀1")).iterator());
+        FlushSizeListener.max.set(0);
+        statistics().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void windowCommitAndClearKeepPersistenceContextBounded() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < WINDOW_SIZE * 5; i++) {
+            members.add(member("member" + i, "회원" + i, i));
+        }
+
+        BulkLoadReport report = loader.loadMembers(members.iterator());
+
+        assertThat(report.getRows()).isEqualTo(WINDOW_SIZE * 5);
+        assertThat(report.getWindows()).isEqualTo(5);
+        // 플러시할 때 영속성 컨텍스트의 엔티티 수가 전체가 아니라 윈도우 크기를 넘지 않음
+        assertThat(FlushSizeListener.max.get()).isBetween(1, WINDOW_SIZE);
+    }
+
+    @Test
+    void teamIsReferencedWithoutLoadingIt() {
+        // 저장되지 않은 팀 객체: 식별자만 사용
+        Member member = member("member1", "회원1", 10);
+        member.setTeam(new Team("team1", null));
+
+        loader.loadMembers(List.of(member).iterator());
+
+        assertThat(statistics().getEntityStatistics(Team.class.getName()).getLoadCount()).isZero();
+        EntityManager em = emf.createEntityManager();
+        try {
+            assertThat(em.find(Member.class, "member1").getTeam().getId()).isEqualTo("team1");
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void duplicatesInTheSameWindowAreSkipped() {
+        BulkLoadReport report = loader.loadMembers(List.of(
+            member("member1", "회원1", 10),
+            member("member2", "회원1", 10),
+            member("member1", "다른회원", 20),
+            member("member3", "회원3", null),
+            member("member4", "회원3", null)
+        ).iterator());
+
+        assertThat(report.getRows()).isEqualTo(3);
+        assertThat(report.getSkipped()).isEqualTo(2);
+        assertThat(count()).isEqualTo(3);
+    }
+
+    @Test
+    void failedWindowKeepsEarlierWindows() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < WINDOW_SIZE * 2; i++) {
+            members.add(member("member" + i, "회원" + i, i));
+        }
+        Member orphan = member("orphan", "고아", 100);
+        orphan.setTeam(new Team("missing", null));
+        members.add(orphan);
+
+        BulkLoadException e = catchThrowableOfType(() -> loader.loadMembers(members.iterator()), BulkLoadException.class);
+
+        assertThat(e.getReport().getRows()).isEqualTo(WINDOW_SIZE * 2);
+        assertThat(e.getReport().getWindows()).isEqualTo(2);
+        assertThat(count()).isEqualTo(WINDOW_SIZE * 2);
+    }
+
+    private long count() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static Member member(String id, String username, Integer age) {
+        Member member = new Member(id, username);
+        member.setAge(age);
+        return member;
+    }
+
+    /**
+     * 세션마다 새로 만들어지므로 최댓값은 static으로 모음
+     */
+    public static class FlushSizeListener extends BaseSessionEventListener {
+
+        static final AtomicInteger max = new AtomicInteger();
+
+        @Override
+        public void flushEnd(int numberOfEntities, int numberOfCollections) {
+            max.accumulateAndGet(numberOfEntities, Math::max);
+        }
+    }
+}
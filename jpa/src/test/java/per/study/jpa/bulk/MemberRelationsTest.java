@@ -0,0 +1,123 @@
+package per.study.jpa.bulk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+import per.study.jpa.query.TeamQueries;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberRelationsTest {
+
+    private static final int MEMBERS = 3;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        emf = Persistence.createEntityManagerFactory("jpabook");
+        em = emf.createEntityManager();
+
+        em.getTransaction().begin();
+        Team team1 = new Team("team1", "팀1");
+        em.persist(team1);
+        em.persist(new Team("team2", "팀2"));
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member("member" + i, "회원" + i);
+            member.setTeam(team1);
+            em.persist(member);
+        }
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    void reassignUpdatesLoadedMembersAndCollections() {
+        em.getTransaction().begin();
+        Team team1 = em.find(Team.class, "team1");
+        Team team2 = em.find(Team.class, "team2");
+        Member member = em.find(Member.class, "member0");
+        assertThat(team1.getMembers()).hasSize(MEMBERS);
+        assertThat(team2.getMembers()).isEmpty();
+
+        int updated = MemberRelations.reassign(em, "team1", "team2");
+
+        assertThat(updated).isEqualTo(MEMBERS);
+        assertThat(member.getTeam().getId()).isEqualTo("team2");
+        assertThat(team1.getMembers()).isEmpty();
+        assertThat(team2.getMembers()).hasSize(MEMBERS);
+        assertThat(team1.getMemberCount()).isZero();
+        assertThat(team2.getMemberCount()).isEqualTo(MEMBERS);
+        em.getTransaction().commit();
+    }
+
+    @Test
+    void reassignToTheSameTeamChangesNothing() {
+        em.getTransaction().begin();
+        Member member = em.find(Member.class, "member0");
+
+        int updated = MemberRelations.reassign(em, "team1", "team1");
+
+        assertThat(updated).isZero();
+        assertThat(member.getTeam().getId()).isEqualTo("team1");
+        assertThat(TeamQueries.memberCount(em, "team1")).isEqualTo(MEMBERS);
+        em.getTransaction().commit();
+    }
+
+    @Test
+    void detachClearsTeamOfLoadedMembers() {
+        em.getTransaction().begin();
+        Team team1 = em.find(Team.class, "team1");
+        Member member = em.find(Member.class, "member1");
+        assertThat(team1.getMembers()).hasSize(MEMBERS);
+
+        int updated = MemberRelations.detach(em, "team1");
+
+        assertThat(updated).isEqualTo(MEMBERS);
+        assertThat(member.getTeam()).isNull();
+        assertThat(team1.getMembers()).isEmpty();
+        em.getTransaction().commit();
+    }
+
+    @Test
+    void detachedAndTeamlessMembersPrintWithoutLoadingTheTeam() {
+        em.getTransaction().begin();
+        Member member = em.find(Member.class, "member0");
+        em.clear();
+        // 분리된 회원의 팀 프록시를 초기화하지 않음
+        assertThat(member.toString()).contains("teamId=team1");
+
+        MemberRelations.detach(em, "team1");
+        em.getTransaction().commit();
+
+        assertThat(em.find(Member.class, "member0").toString()).contains("teamId=null");
+    }
+
+    @Test
+    void pendingChangesAreFlushedBeforeTheBulkUpdate() {
+        em.getTransaction().begin();
+        Member member = em.find(Member.class, "member2");
+        member.setTeam(em.find(Team.class, "team2"));
+
+        int updated = MemberRelations.detach(em, "team1");
+
+        assertThat(updated).isEqualTo(MEMBERS - 1);
+        assertThat(member.getTeam().getId()).isEqualTo("team2");
+        assertThat(TeamQueries.memberCount(em, "team1")).isZero();
+        assertThat(TeamQueries.memberCount(em, "team2")).isEqualTo(1);
+        em.getTransaction().commit();
+    }
+}
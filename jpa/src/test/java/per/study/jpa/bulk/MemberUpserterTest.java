@@ -0,0 +1,146 @@
+package per.study.jpa.bulk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class MemberUpserterTest {
+
+    private EntityManagerFactory emf;
+    private MemberUpserter upserter;
+
+    @BeforeEach
+    void setUp() {
+        emf = Persistence.createEntityManagerFactory("jpabook");
+        upserter = new MemberUpserter(emf, 2);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.persist(member("member1", "회원1", 20, "기존1"));
+        em.persist(member("member2", "회원2", 30, "기존2"));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void upsertByIdInsertsNewAndUpdatesExistingRows() {
+        UpsertReport report = upserter.upsert(List.of(
+            member("member1", "회원1", 21, "수정1"),
+            member("member3", "회원3", 40, "신규3"),
+            member("member4", "회원4", 50, "신규4")
+        ).iterator(), UpsertKey.ID);
+
+        assertThat(report.getInserted()).isEqualTo(2);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getBatches()).isEqualTo(2);
+
+        Member updated = find("member1");
+        assertThat(updated.getAge()).isEqualTo(21);
+        assertThat(updated.getDescription()).isEqualTo("수정1");
+        assertThat(find("member4").getUsername()).isEqualTo("회원4");
+    }
+
+    @Test
+    void upsertByNameAgeKeepsExistingId() {
+        UpsertReport report = upserter.upsert(List.of(
+            member("other2", "회원2", 30, "수정2"),
+            member("member5", "회원5", 60, "신규5")
+        ).iterator(), UpsertKey.NAME_AGE);
+
+        assertThat(report.getInserted()).isEqualTo(1);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(find("member2").getDescription()).isEqualTo("수정2");
+        assertThat(find("other2")).isNull();
+    }
+
+    @Test
+    void duplicateKeysInOneBatchKeepTheLastValue() {
+        UpsertReport report = upserter.upsert(List.of(
+            member("member6", "회원6", 70, "처음"),
+            member("member6", "회원6", 70, "마지막")
+        ).iterator(), UpsertKey.ID);
+
+        assertThat(report.getInserted()).isEqualTo(1);
+        assertThat(report.getUpdated()).isZero();
+        assertThat(find("member6").getDescription()).isEqualTo("마지막");
+    }
+
+    @Test
+    void portableFallbackUpdatesThenInserts() {
+        MemberUpserter portable = new MemberUpserter(emf, 2, UpsertDialect.PORTABLE);
+
+        UpsertReport report = portable.upsert(List.of(
+            member("member1", "회원1", 22, "수정1"),
+            member("member7", "회원7", 80, "신규7"),
+            member("member8", "회원8", 90, "신규8")
+        ).iterator(), UpsertKey.ID);
+
+        assertThat(report.getInserted()).isEqualTo(2);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(find("member1").getAge()).isEqualTo(22);
+        assertThat(find("member7").getDescription()).isEqualTo("신규7");
+    }
+
+    @Test
+    void failedBatchStillRecountsTeamsOfCommittedBatches() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Team team1 = new Team("team1", "팀1");
+        em.persist(team1);
+        em.getTransaction().commit();
+        em.close();
+
+        Member member1 = member("member1", "회원1", 20, "기존1");
+        member1.setTeam(team1);
+        Member member2 = member("member2", "회원2", 30, "기존2");
+        member2.setTeam(team1);
+        Member member3 = member("member3", "회원3", 40, "신규3");
+        member3.setTeam(new Team("missing", "없는 팀"));
+
+        UpsertException e = catchThrowableOfType(() -> upserter.upsert(List.of(member1, member2, member3).iterator(), UpsertKey.ID), UpsertException.class);
+
+        assertThat(e.getReport().getBatches()).isEqualTo(1);
+        assertThat(e.getSuppressed()).isEmpty();
+        EntityManager reader = emf.createEntityManager();
+        try {
+            assertThat(reader.find(Team.class, "team1").getMemberCount()).isEqualTo(2);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Member find(String id) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Member member = em.find(Member.class, id);
+            if (member != null) {
+                member.getDescription();
+            }
+            return member;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Member member(String id, String username, int age, String description) {
+        Member member = new Member(id, username);
+        member.setAge(age);
+        member.setDescription(description);
+        return member;
+    }
+}
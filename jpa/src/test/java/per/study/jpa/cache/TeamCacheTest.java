@@ -0,0 +1,61 @@
+package per.study.jpa.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Team;
+import per.study.jpa.support.SqlStatementCounter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static per.study.jpa.support.SqlStatementCounter.expectAtMost;
+
+class TeamCacheTest {
+
+    private EntityManagerFactory emf;
+
+    @BeforeEach
+    void setUp() {
+        emf = Persistence.createEntityManagerFactory("jpabook", Map.of(SqlStatementCounter.PROPERTY, SqlStatementCounter.class.getName()));
+        inTransaction(em -> em.persist(new Team("team1", "팀1")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void teamIsReadFromCacheAfterFirstLoad() {
+        long hitsBefore = CacheRegionStats.of(emf, "team").getHits();
+
+        EntityManager em = emf.createEntityManager();
+        Team team = expectAtMost(0, () -> em.find(Team.class, "team1"));
+        em.close();
+
+        assertThat(team.getName()).isEqualTo("팀1");
+        assertThat(CacheRegionStats.of(emf, "team").getHits()).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    void updatedTeamIsNotServedStale() {
+        inTransaction(em -> em.find(Team.class, "team1").setName("새팀"));
+
+        EntityManager em = emf.createEntityManager();
+        assertThat(em.find(Team.class, "team1").getName()).isEqualTo("새팀");
+        em.close();
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        work.accept(em);
+        em.getTransaction().commit();
+        em.close();
+    }
+}
@@ -0,0 +1,106 @@
+package per.study.jpa.count;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountListenerTest {
+
+    private EntityManagerFactory emf;
+
+    @BeforeEach
+    void setUp() {
+        emf = Persistence.createEntityManagerFactory("jpabook");
+        inTransaction(em -> {
+            Team team1 = new Team("team1", "팀1");
+            em.persist(team1);
+            em.persist(new Team("team2", "팀2"));
+            for (int i = 0; i < 3; i++) {
+                Member member = new Member("member" + i, "회원" + i);
+                member.setAge(i);
+                member.setTeam(team1);
+                em.persist(member);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void insertedMembersAreCounted() {
+        assertThat(memberCount("team1")).isEqualTo(3);
+        assertThat(memberCount("team2")).isZero();
+    }
+
+    @Test
+    void changingTeamMovesCount() {
+        inTransaction(em -> em.find(Member.class, "member0").setTeam(em.find(Team.class, "team2")));
+
+        assertThat(memberCount("team1")).isEqualTo(2);
+        assertThat(memberCount("team2")).isEqualTo(1);
+    }
+
+    @Test
+    void removedMemberIsSubtracted() {
+        inTransaction(em -> em.remove(em.find(Member.class, "member1")));
+
+        assertThat(memberCount("team1")).isEqualTo(2);
+    }
+
+    @Test
+    void countIsVisibleAfterFlushInSameTransaction() {
+        inTransaction(em -> {
+            Member member = new Member("member9", "회원9");
+            member.setAge(9);
+            member.setTeam(em.getReference(Team.class, "team2"));
+            em.persist(member);
+            em.flush();
+
+            assertThat(em.createQuery("select t.memberCount from Team t where t.id = 'team2'", Integer.class).getSingleResult()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void rolledBackChangesAreNotCounted() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.remove(em.find(Member.class, "member2"));
+        em.flush();
+        em.getTransaction().rollback();
+        em.close();
+
+        assertThat(memberCount("team1")).isEqualTo(3);
+    }
+
+    /**
+     * 2차 캐시(team)를 거쳐서 조회해도 변경된 값이 보여야 함
+     */
+    private int memberCount(String teamId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.find(Team.class, teamId).getMemberCount();
+        } finally {
+            em.close();
+        }
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        work.accept(em);
+        em.getTransaction().commit();
+        em.close();
+    }
+}
@@ -0,0 +1,113 @@
+package per.study.jpa.id;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Board;
+import per.study.jpa.entity.Post;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedIdAllocatorTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws InterruptedException {
+        AtomicLong sequence = new AtomicLong(1);
+        IdBlockSource source = () -> {
+            long start = sequence.getAndAdd(BLOCK_SIZE);
+            return new IdBlock(start, start + BLOCK_SIZE);
+        };
+        ExecutorService refiller = Executors.newSingleThreadExecutor();
+        StripedIdAllocator allocator = new StripedIdAllocator(source, 4, 4, refiller);
+
+        int threads = 8;
+        int idsPerThread = 5_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.execute(() -> {
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids.add(allocator.next());
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(ids).hasSize(threads * idsPerThread);
+        workers.shutdown();
+        refiller.shutdown();
+    }
+
+    @Test
+    void twoAllocatorsSharingOneSourceNeverOverlap() {
+        AtomicLong sequence = new AtomicLong(1);
+        IdBlockSource source = () -> {
+            long start = sequence.getAndAdd(BLOCK_SIZE);
+            return new IdBlock(start, start + BLOCK_SIZE);
+        };
+        StripedIdAllocator jvm1 = new StripedIdAllocator(source, 1, 1, Runnable::run);
+        StripedIdAllocator jvm2 = new StripedIdAllocator(source, 1, 1, Runnable::run);
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(ids.add(jvm1.next())).isTrue();
+            assertThat(ids.add(jvm2.next())).isTrue();
+        }
+    }
+
+    @Test
+    void stopShutsDownRefillerAndFallsBackToCallerThread() {
+        AtomicLong sequence = new AtomicLong(1);
+        IdBlockSource source = () -> {
+            long start = sequence.getAndAdd(BLOCK_SIZE);
+            return new IdBlock(start, start + BLOCK_SIZE);
+        };
+        ExecutorService refiller = Executors.newSingleThreadExecutor();
+        StripedIdAllocator allocator = new StripedIdAllocator(source, 1, 1, refiller);
+        allocator.next();
+
+        allocator.stop();
+
+        assertThat(refiller.isTerminated()).isTrue();
+        for (int i = 0; i < BLOCK_SIZE * 3; i++) {
+            allocator.next();
+        }
+    }
+
+    @Test
+    void closingEntityManagerFactoryStopsGenerators() {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("jpabook");
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.persist(new Board());
+        em.persist(new Post());
+        em.getTransaction().commit();
+        em.close();
+
+        // 이 EntityManagerFactory의 생성기가 만든 할당기만 확인 (같은 JVM의 다른 EntityManagerFactory와 무관)
+        StripedIdAllocator boardIds = ((StripedSequenceGenerator) sessionFactory.getMetamodel().entityPersister(Board.class).getIdentifierGenerator()).currentAllocator();
+        StripedIdAllocator postIds = ((StripedTableGenerator) sessionFactory.getMetamodel().entityPersister(Post.class).getIdentifierGenerator()).currentAllocator();
+        assertThat(boardIds.isTerminated()).isFalse();
+        assertThat(postIds.isTerminated()).isFalse();
+
+        emf.close();
+
+        assertThat(boardIds.isTerminated()).isTrue();
+        assertThat(postIds.isTerminated()).isTrue();
+    }
+}
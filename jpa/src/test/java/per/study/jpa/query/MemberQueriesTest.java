@@ -0,0 +1,77 @@
+package per.study.jpa.query;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+import per.study.jpa.support.SqlStatementCounter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static per.study.jpa.support.SqlStatementCounter.expectAtMost;
+
+class MemberQueriesTest {
+
+    private static final int MEMBERS = 3;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        emf = Persistence.createEntityManagerFactory("jpabook", Map.of(
+            SqlStatementCounter.PROPERTY, SqlStatementCounter.class.getName(),
+            "hibernate.cache.use_second_level_cache", "false"
+        ));
+        em = emf.createEntityManager();
+
+        em.getTransaction().begin();
+        Team team = new Team("team1", "팀1");
+        em.persist(team);
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member("member" + i, "회원" + i);
+            member.setAge(20 + i);
+            member.setDescription("소개".repeat(1000));
+            member.setTeam(team);
+            em.persist(member);
+        }
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    void summariesSelectOnlyListedColumns() {
+        SqlStatementCounter.reset();
+        List<MemberSummary> summaries = MemberQueries.findSummariesByTeam(em, "팀1");
+
+        assertThat(summaries).extracting(MemberSummary::getUsername).containsExactly("회원0", "회원1", "회원2");
+        assertThat(summaries).extracting(MemberSummary::getTeamName).containsOnly("팀1");
+        assertThat(SqlStatementCounter.statements()).singleElement().asString().doesNotContainIgnoringCase("description");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void descriptionIsLoadedOnFirstAccess() {
+        SqlStatementCounter.reset();
+        Member member = em.find(Member.class, "member0");
+
+        assertThat(SqlStatementCounter.statements()).singleElement().asString().doesNotContainIgnoringCase("description");
+        assertThat(emf.getPersistenceUnitUtil().isLoaded(member, "description")).isFalse();
+
+        String description = expectAtMost(1, member::getDescription);
+        assertThat(description).hasSize(2000);
+    }
+}
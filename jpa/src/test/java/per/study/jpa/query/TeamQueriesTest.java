@@ -0,0 +1,115 @@
+package per.study.jpa.query;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+import per.study.jpa.support.SqlStatementCounter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static per.study.jpa.support.SqlStatementCounter.expectAtMost;
+
+class TeamQueriesTest {
+
+    private static final List<String> TEAM_IDS = List.of("team1", "team2", "team3");
+    private static final int MEMBERS_PER_TEAM = 5;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        // 2차 캐시 없이 페치 전략만 검증
+        emf = Persistence.createEntityManagerFactory("jpabook", Map.of(
+            SqlStatementCounter.PROPERTY, SqlStatementCounter.class.getName(),
+            "hibernate.cache.use_second_level_cache", "false"
+        ));
+        em = emf.createEntityManager();
+
+        em.getTransaction().begin();
+        for (String teamId : TEAM_IDS) {
+            Team team = new Team(teamId, "팀" + teamId);
+            em.persist(team);
+            for (int i = 0; i < MEMBERS_PER_TEAM; i++) {
+                Member member = new Member(teamId + "-member" + i, "회원" + i);
+                member.setAge(TEAM_IDS.indexOf(teamId));
+                member.setTeam(team);
+                em.persist(member);
+            }
+        }
+        em.getTransaction().commit();
+        em.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    void entityGraphLoadsTeamAndMembersInOneQuery() {
+        Team team = expectAtMost(1, () -> TeamQueries.findWithMembers(em, "team1"));
+
+        assertThat(expectAtMost(0, () -> team.getMembers().size())).isEqualTo(MEMBERS_PER_TEAM);
+    }
+
+    @Test
+    void fetchJoinLoadsSeveralTeamsInOneQuery() {
+        List<Team> teams = expectAtMost(1, () -> TeamQueries.findAllWithMembers(em, TEAM_IDS));
+
+        expectAtMost(0, () -> teams.forEach(team -> assertThat(team.getMembers()).hasSize(MEMBERS_PER_TEAM)));
+    }
+
+    @Test
+    void memberWithTeammatesInOneQuery() {
+        Member member = expectAtMost(1, () -> TeamQueries.findWithTeammates(em, "team2-member0"));
+
+        assertThat(expectAtMost(0, () -> member.getTeam().getMembers().size())).isEqualTo(MEMBERS_PER_TEAM);
+    }
+
+    @Test
+    void batchFetchingLoadsAllCollectionsWithOneExtraQuery() {
+        expectAtMost(2, () -> {
+            List<Team> teams = em.createQuery("select t from Team t", Team.class).getResultList();
+            for (Team team : teams) {
+                // size()는 EXTRA 지연 로딩으로 COUNT만 하므로 반복해서 초기화
+                assertThat(team.getMembers()).extracting(Member::getId).hasSize(MEMBERS_PER_TEAM);
+            }
+        });
+    }
+
+    @Test
+    void sizeAndContainsDoNotInitializeMembers() {
+        Team team = em.find(Team.class, "team1");
+
+        assertThat(expectAtMost(1, () -> team.getMembers().size())).isEqualTo(MEMBERS_PER_TEAM);
+        assertThat(expectAtMost(1, () -> team.getMembers().isEmpty())).isFalse();
+        assertThat(expectAtMost(1, () -> team.getMembers().contains(em.getReference(Member.class, "team1-member0")))).isTrue();
+        assertThat(expectAtMost(1, () -> team.getMembers().contains(em.getReference(Member.class, "team2-member0")))).isFalse();
+        assertThat(Hibernate.isInitialized(team.getMembers())).isFalse();
+    }
+
+    @Test
+    void memberCountReadsSingleTeamRow() {
+        assertThat(expectAtMost(1, () -> TeamQueries.memberCount(em, "team1"))).isEqualTo(MEMBERS_PER_TEAM);
+        assertThat(em.find(Team.class, "team2").getMemberCount()).isEqualTo(MEMBERS_PER_TEAM);
+    }
+
+    @Test
+    void counterFailsWhenCodePathIssuesTooManyStatements() {
+        assertThatThrownBy(() -> expectAtMost(1, () -> {
+            em.find(Team.class, "team1");
+            em.find(Team.class, "team2");
+        })).isInstanceOf(AssertionError.class);
+    }
+}
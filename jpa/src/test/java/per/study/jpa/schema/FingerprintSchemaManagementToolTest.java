@@ -0,0 +1,51 @@
+package per.study.jpa.schema;
+
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintSchemaManagementToolTest {
+
+    // 마지막 커넥션을 닫아도 데이터베이스를 유지해서 재시작을 흉내냄
+    private static final Map<String, String> PROPERTIES = Map.of(
+        "javax.persistence.jdbc.url", "jdbc:h2:mem:fingerprint;DB_CLOSE_DELAY=-1",
+        "hibernate.cache.use_second_level_cache", "false"
+    );
+
+    @Test
+    void unchangedSchemaIsNotRecreated() {
+        run(em -> em.persist(new Team("team1", "팀1")));
+
+        run(em -> assertThat(em.find(Team.class, "team1")).isNotNull());
+    }
+
+    @Test
+    void changedFingerprintRecreatesSchema() {
+        run(em -> {
+            em.persist(new Team("team2", "팀2"));
+            em.createNativeQuery("update " + FingerprintSchemaManagementTool.TABLE + " set FINGERPRINT = 'stale'").executeUpdate();
+        });
+
+        run(em -> assertThat(em.find(Team.class, "team2")).isNull());
+    }
+
+    private static void run(Consumer<EntityManager> work) {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("jpabook", PROPERTIES);
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            work.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+            emf.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package per.study.jpa.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlTracerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private EntityManagerFactory emf;
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(registry);
+        emf = Persistence.createEntityManagerFactory("jpabook", Map.of(
+            "hibernate.cache.use_second_level_cache", "false",
+            TracingConnectionProvider.SLOW_THRESHOLD_MS, "0"
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.close();
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void shapeIgnoresLiteralsAndInListLength() {
+        assertThat(SqlShape.of("select * from t where id in (?, ?, ?) and name = 'a''b' and age = 10"))
+            .isEqualTo("select * from t where id in (?) and name = ? and age = ?");
+        assertThat(SqlShape.of("/* comment */ SELECT  m.id\n FROM member0_ m"))
+            .isEqualTo("select m.id from member0_ m");
+        assertThat(SqlShape.type("merge into t using ...")).isEqualTo("merge");
+    }
+
+    @Test
+    void recordsBatchSizesRowsAndSlowQueries() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < 10; i++) {
+            Member member = new Member("member" + i, "회원" + i);
+            member.setAge(i);
+            em.persist(member);
+        }
+        em.getTransaction().commit();
+        em.clear();
+
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        em.close();
+
+        assertThat(members).hasSize(10);
+        DistributionSummary batchSize = registry.find("jdbc.batch.size").tag("type", "insert").summary();
+        assertThat(batchSize).isNotNull();
+        assertThat(batchSize.totalAmount()).isEqualTo(10);
+
+        Timer select = registry.find("jdbc.statement").tag("type", "select").timer();
+        assertThat(select).isNotNull();
+        assertThat(select.count()).isGreaterThanOrEqualTo(1);
+        assertThat(registry.find("jdbc.rows").tag("type", "select").summary().totalAmount()).isGreaterThanOrEqualTo(10);
+        assertThat(registry.find("jdbc.connection.acquire").timer().count()).isPositive();
+
+        assertThat(TracingConnectionProvider.tracer(emf).getSlowQueryLog().snapshot()).isNotEmpty();
+    }
+
+    @Test
+    void shapesBeyondLimitAreFoldedIntoOther() {
+        SimpleMeterRegistry shapes = new SimpleMeterRegistry();
+        SqlTracer tracer = new SqlTracer(shapes, "test", Duration.ofHours(1), new SlowQueryLog(1));
+
+        for (int i = 0; i < SqlTracer.MAX_SHAPES + 10; i++) {
+            tracer.recordExecution("select c from t" + i, 1_000, 0, -1);
+        }
+
+        assertThat(shapes.find("jdbc.statement").timers()).hasSize(SqlTracer.MAX_SHAPES + 1);
+        assertThat(shapes.get("jdbc.statement").tag("sql", "other").timer().count()).isEqualTo(10);
+    }
+}
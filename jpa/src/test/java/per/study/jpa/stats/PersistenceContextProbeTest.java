@@ -0,0 +1,65 @@
+package per.study.jpa.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import per.study.jpa.entity.Member;
+import per.study.jpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistenceContextProbeTest {
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private SimpleMeterRegistry registry;
+    private PersistenceContextProbe probe;
+
+    @BeforeEach
+    void setUp() {
+        emf = Persistence.createEntityManagerFactory("jpabook");
+        em = emf.createEntityManager();
+        registry = new SimpleMeterRegistry();
+        probe = PersistenceContextProbe.attach(em, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    @Test
+    void summarizesManagedEntitiesAndUpdates() {
+        em.getTransaction().begin();
+        Team team = new Team("team1", "팀1");
+        em.persist(team);
+        for (int i = 0; i < 3; i++) {
+            Member member = new Member("member" + i, "회원" + i);
+            member.setTeam(team);
+            em.persist(member);
+        }
+        em.getTransaction().commit();
+
+        TransactionSummary inserted = probe.getLastSummary();
+        assertThat(inserted.isCommitted()).isTrue();
+        assertThat(inserted.getManagedEntities()).containsEntry("Team", 1).containsEntry("Member", 3);
+        assertThat(inserted.getEstimatedSnapshotBytes()).isPositive();
+        assertThat(inserted.getUpdatedEntities()).isZero();
+
+        em.getTransaction().begin();
+        em.find(Member.class, "member0").setAge(30);
+        em.getTransaction().commit();
+
+        TransactionSummary updated = probe.getLastSummary();
+        assertThat(updated.getFlushes()).isEqualTo(1);
+        assertThat(updated.getDirtyChecks()).isGreaterThanOrEqualTo(updated.getUpdatedEntities());
+        assertThat(updated.getUpdatedEntities()).isEqualTo(1);
+        assertThat(registry.counter("jpa.persistence.context.updated.entities").count()).isEqualTo(1);
+    }
+}
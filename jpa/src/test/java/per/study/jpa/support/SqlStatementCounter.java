@@ -0,0 +1,53 @@
+package per.study.jpa.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Hibernate가 prepare하는 SQL을 스레드별로 기록해서 코드 경로가 보내는 쿼리 수를 검증
+ * - hibernate.session_factory.statement_inspector 로 등록
+ * - JDBC 배치는 prepare 한 번으로 기록됨
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    public static final String PROPERTY = "hibernate.session_factory.statement_inspector";
+
+    @Override
+    public String inspect(String sql) {
+        statements.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        statements.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(statements.get());
+    }
+
+    /**
+     * codePath가 maxStatements개보다 많은 SQL을 보내면 실패
+     */
+    public static <T> T expectAtMost(int maxStatements, Supplier<T> codePath) {
+        reset();
+        T result = codePath.get();
+        List<String> issued = statements();
+        if (issued.size() > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but " + issued.size() + " were issued:\n  " + String.join("\n  ", issued));
+        }
+        return result;
+    }
+
+    public static void expectAtMost(int maxStatements, Runnable codePath) {
+        expectAtMost(maxStatements, () -> {
+            codePath.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package per.study.springdatajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import per.study.springdatajpa.SpringDataJpaApplication;
+import per.study.springdatajpa.entity.User;
+import per.study.springdatajpa.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 읽기 전용 트랜잭션과 일반 트랜잭션으로 users 전체를 조회할 때 비교
+ * - Score: 조회 한 번(users 전체)에 걸린 시간
+ * - gc.alloc.rate.norm: 조회 한 번에 할당한 바이트 (읽기 전용이면 스냅샷 배열이 없음)
+ * - 일반 트랜잭션은 커밋할 때 모든 엔티티를 변경 감지하므로 users 수에 비례해서 느려짐
+ *
+ * 실행: ./gradlew jmh -PjmhIncludes=ReadOnlyTransactionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ReadOnlyTransactionBenchmark {
+
+    @Param({"10000", "100000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(SpringDataJpaApplication.class,
+            "--spring.profiles.active=h2",
+            "--spring.main.web-application-type=none",
+            "--spring.jpa.show-sql=false"
+        );
+        userRepository = context.getBean(UserRepository.class);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        List<Object[]> names = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            names.add(new Object[]{i + 1L, "duho" + i});
+        }
+        // id는 시퀀스(users_seq)로 생성하므로 조회만 하는 벤치마크에서는 직접 지정
+        context.getBean(JdbcTemplate.class).batchUpdate("insert into users (id, name) values (?, ?)", names);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void readOnlyTransaction(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> consume(blackhole));
+    }
+
+    @Benchmark
+    public void readWriteTransaction(Blackhole blackhole) {
+        readWrite.executeWithoutResult(status -> consume(blackhole));
+    }
+
+    private void consume(Blackhole blackhole) {
+        for (User user : userRepository.findAll()) {
+            blackhole.consume(user.getName());
+        }
+    }
+}
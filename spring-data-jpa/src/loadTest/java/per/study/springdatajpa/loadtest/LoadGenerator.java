@@ -0,0 +1,125 @@
+package per.study.springdatajpa.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * concurrency개의 스레드로 시나리오 요청을 보내고 응답 시간을 기록
+ *
+ * rate > 0 (고정 속도)
+ * - 요청마다 예정 시각(start + n / rate)을 정해 두고, 응답 시간을 예정 시각부터 계산
+ * - 서버가 느려져 요청이 밀려도 그 대기 시간이 기록되므로 지연이 과소 평가되지 않음 (coordinated omission)
+ * rate = 0 (최대 속도)
+ * - 스레드마다 응답을 받자마자 다음 요청을 보냄, 응답 시간은 실제로 보낸 시각부터 계산
+ */
+class LoadGenerator {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LoadTestConfig config;
+
+    LoadGenerator(String baseUrl, LoadTestConfig config) {
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(config.concurrency()))
+            .build();
+        this.baseUrl = baseUrl;
+        this.config = config;
+    }
+
+    ScenarioResult run(Scenario scenario) throws InterruptedException {
+        drive(scenario, config.warmup());
+        return drive(scenario, config.duration()).toResult(scenario);
+    }
+
+    private Run drive(Scenario scenario, Duration duration) throws InterruptedException {
+        Run run = new Run(System.nanoTime(), duration.toNanos());
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency());
+        for (int i = 0; i < config.concurrency(); i++) {
+            workers.execute(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    long intended = run.nextIntendedStart(config.rate());
+                    if (intended - run.start >= run.length) {
+                        return;
+                    }
+                    LockSupport.parkNanos(intended - System.nanoTime());
+                    send(scenario, run, config.rate() > 0 ? intended : System.nanoTime());
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toMillis() + MAX_LATENCY / 1_000_000, TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        run.seconds = (System.nanoTime() - run.start) / 1_000_000_000.0;
+        return run;
+    }
+
+    private void send(Scenario scenario, Run run, long startedAt) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + scenario.path(config.users())))
+            .timeout(Duration.ofNanos(MAX_LATENCY))
+            .GET()
+            .build();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            // 연결 실패, 시간 초과는 상태 코드 0으로 집계
+            status = 0;
+        }
+        run.histogram.recordValue(Math.min(System.nanoTime() - startedAt, MAX_LATENCY));
+        run.statusCodes.computeIfAbsent(status, code -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            run.errors.increment();
+        }
+    }
+
+    private static class Run {
+
+        private final long start;
+        private final long length;
+        private final AtomicLong sequence = new AtomicLong();
+        private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY, 3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private double seconds;
+
+        private Run(long start, long length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        private long nextIntendedStart(int rate) {
+            if (rate <= 0) {
+                return System.nanoTime();
+            }
+            return start + sequence.getAndIncrement() * 1_000_000_000L / rate;
+        }
+
+        private ScenarioResult toResult(Scenario scenario) {
+            Map<Integer, Long> codes = new TreeMap<>();
+            statusCodes.forEach((code, count) -> codes.put(code, count.sum()));
+            return ScenarioResult.of(scenario, histogram, errors.sum(), codes, seconds);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package per.study.springdatajpa.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import per.study.springdatajpa.SpringDataJpaApplication;
+import per.study.springdatajpa.entity.User;
+import per.study.springdatajpa.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UserApis 부하 테스트
+ * 1. H2(h2 프로파일, mode=virtual이면 virtual 프로파일도)로 애플리케이션을 임의 포트에 띄우고 사용자 users명을 저장 (이름: duho0, duho1, ...)
+ * 2. 시나리오마다 warmup 후 duration 동안 측정
+ * 3. <보고서 디렉터리>/<label>.json 과 latest.json 에 결과를 기록
+ *
+ * 실행: ./gradlew loadTest -PloadTest.concurrency=32 -PloadTest.rate=2000
+ * 커밋 사이 비교: 두 커밋에서 각각 실행한 뒤 build/reports/load-test/<커밋>-<mode>.json 을 비교
+ * 스레드 모드 비교: 같은 설정으로 -PloadTest.mode=platform / virtual 을 각각 실행
+ */
+public class LoadTest {
+
+    private static final int SEED_BATCH = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        Path reportDirectory = Path.of(args.length > 0 ? args[0] : "build/reports/load-test");
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        ConfigurableApplicationContext context = SpringApplication.run(SpringDataJpaApplication.class,
+            "--spring.profiles.active=" + config.profiles(),
+            "--server.port=0",
+            "--spring.jpa.show-sql=false"
+        );
+        try {
+            seed(context, config.users());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadGenerator generator = new LoadGenerator("http://localhost:" + port, config);
+
+            List<ScenarioResult> results = new ArrayList<>();
+            for (Scenario scenario : config.scenarios()) {
+                ScenarioResult result = generator.run(scenario);
+                System.out.println("[load-test] " + result);
+                results.add(result);
+            }
+            write(reportDirectory, new Report(config.label(), Instant.now(), config, results));
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 검색 색인(UserSearchIndex)에는 커밋 후에 반영됨
+     */
+    private static void seed(ConfigurableApplicationContext context, int users) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int from = 0; from < users; from += SEED_BATCH) {
+            List<User> batch = new ArrayList<>(SEED_BATCH);
+            for (int i = from; i < Math.min(from + SEED_BATCH, users); i++) {
+                batch.add(new User("duho" + i));
+            }
+            transaction.executeWithoutResult(status -> userRepository.saveAll(batch));
+        }
+    }
+
+    /**
+     * <directory>/<label>.json 과 latest.json 에 기록 (StartupBenchmark도 사용)
+     */
+    static void write(Path directory, Labeled report) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(directory);
+        Path file = directory.resolve(report.label() + ".json");
+        objectMapper.writeValue(file.toFile(), report);
+        Files.copy(file, directory.resolve("latest.json"), StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("[load-test] report: " + file.toAbsolutePath());
+    }
+
+    interface Labeled {
+        String label();
+    }
+
+    record Report(String label, Instant finishedAt, LoadTestConfig config, List<ScenarioResult> scenarios) implements Labeled {
+    }
+}
@@ -0,0 +1,48 @@
+package per.study.springdatajpa.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 부하 테스트 설정 (시스템 프로퍼티 loadTest.*, Gradle -PloadTest.* 로 전달)
+ * @param concurrency 동시에 요청을 보내는 스레드 수
+ * @param rate 초당 요청 수 (0이면 응답을 받자마자 다음 요청을 보냄)
+ * @param warmup 측정 전에 버리는 구간
+ * @param duration 시나리오마다 측정하는 시간
+ * @param users 시작 전에 저장해 둘 사용자 수 (검색 대상)
+ * @param scenarios 실행할 시나리오 (순서대로)
+ * @param mode 요청 처리 스레드: platform(Tomcat 스레드 풀) 또는 virtual(virtual 프로파일)
+ * @param label 보고서 이름 (기본값은 커밋 해시)
+ */
+record LoadTestConfig(
+    int concurrency,
+    int rate,
+    Duration warmup,
+    Duration duration,
+    int users,
+    List<Scenario> scenarios,
+    String mode,
+    String label
+) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+            Integer.getInteger("loadTest.concurrency", 16),
+            Integer.getInteger("loadTest.rate", 0),
+            Duration.ofSeconds(Long.getLong("loadTest.warmup", 10L)),
+            Duration.ofSeconds(Long.getLong("loadTest.duration", 30L)),
+            Integer.getInteger("loadTest.users", 10_000),
+            Arrays.stream(System.getProperty("loadTest.scenarios", "create,search").split(","))
+                .map(String::trim)
+                .map(Scenario::of)
+                .toList(),
+            System.getProperty("loadTest.mode", "platform"),
+            System.getProperty("loadTest.label", "local")
+        );
+    }
+
+    String profiles() {
+        return "virtual".equals(mode) ? "h2,virtual" : "h2";
+    }
+}
@@ -0,0 +1,46 @@
+package per.study.springdatajpa.loadtest;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 테스트 시나리오: 요청마다 호출할 경로
+ */
+enum Scenario {
+
+    /**
+     * GET / : 사용자 등록 (CreateUser write-behind)
+     */
+    CREATE {
+        @Override
+        String path(int users) {
+            return "/";
+        }
+    },
+
+    /**
+     * GET /users?q= : 이름 검색 첫 페이지 (검색어는 저장된 사용자 이름 중 하나)
+     */
+    SEARCH {
+        @Override
+        String path(int users) {
+            return "/users?size=20&q=duho" + ThreadLocalRandom.current().nextInt(Math.max(users, 1));
+        }
+    },
+
+    /**
+     * GET /users/stream?q= : 검색 결과 전체를 NDJSON으로 스트리밍 (응답을 끝까지 읽은 시간)
+     */
+    STREAM {
+        @Override
+        String path(int users) {
+            return "/users/stream?q=duho" + ThreadLocalRandom.current().nextInt(10);
+        }
+    };
+
+    abstract String path(int users);
+
+    static Scenario of(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
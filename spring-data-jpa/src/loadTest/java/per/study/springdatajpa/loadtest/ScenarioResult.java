@@ -0,0 +1,37 @@
+package per.study.springdatajpa.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 시나리오 하나의 측정 결과 (보고서 JSON의 scenarios 항목)
+ * - latencyMillis: 예정된 요청 시각부터 응답까지 (rate > 0이면 밀린 대기 시간 포함)
+ */
+record ScenarioResult(
+    String scenario,
+    long requests,
+    long errors,
+    Map<Integer, Long> statusCodes,
+    double throughput,
+    Map<String, Double> latencyMillis
+) {
+
+    static ScenarioResult of(Scenario scenario, Histogram histogram, long errors, Map<Integer, Long> statusCodes, double seconds) {
+        Map<String, Double> latency = new LinkedHashMap<>();
+        latency.put("p50", millis(histogram.getValueAtPercentile(50)));
+        latency.put("p90", millis(histogram.getValueAtPercentile(90)));
+        latency.put("p99", millis(histogram.getValueAtPercentile(99)));
+        latency.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+        latency.put("max", millis(histogram.getMaxValue()));
+        latency.put("mean", histogram.getMean() / 1_000_000.0);
+        long requests = histogram.getTotalCount();
+        return new ScenarioResult(scenario.name().toLowerCase(Locale.ROOT), requests, errors, statusCodes, requests / seconds, latency);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,142 @@
+package per.study.springdatajpa.loadtest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시작 시간 측정: 애플리케이션을 별도 JVM으로 띄우고 첫 요청(GET /users?size=1)이 200을 받을 때까지의 시간
+ * - 프로세스를 시작한 시각부터 재므로 JVM 기동, 컨텍스트 초기화, 스키마 생성, 첫 요청 처리가 모두 포함됨
+ * - 모드마다 warmupRuns번은 버리고(운영체제 파일 캐시) runs번 측정
+ *
+ * 모드
+ * - jit:     AOT 결과를 사용하지 않음 (클래스패스 스캔, 빈 정의, 저장소 프록시를 실행 중에 만듦)
+ * - aot:     -Dspring.aot.enabled=true (processAot가 미리 만든 빈 정의와 JPA 관리 타입 사용)
+ * - aot-cds: aot + -XX:SharedArchiveFile (cdsArchive가 만든 클래스 데이터 공유 아카이브)
+ *
+ * 실행: ./gradlew startupBenchmark -Pstartup.runs=10
+ * 보고서: build/reports/startup/<커밋 해시>.json
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        Path reportDirectory = Path.of(args.length > 0 ? args[0] : "build/reports/startup");
+        String classpath = System.getProperty("startup.classpath");
+        String archive = System.getProperty("startup.archive");
+        int warmupRuns = Integer.getInteger("startup.warmupRuns", 1);
+        int runs = Integer.getInteger("startup.runs", 5);
+        List<String> modes = Arrays.stream(System.getProperty("startup.modes", "jit,aot,aot-cds").split(","))
+            .map(String::trim)
+            .toList();
+        Files.createDirectories(reportDirectory);
+
+        List<StartupResult> results = new ArrayList<>();
+        for (String mode : modes) {
+            List<String> jvmArgs = jvmArgs(mode, archive);
+            Path log = reportDirectory.resolve(mode + ".log");
+            Files.deleteIfExists(log);
+            for (int i = 0; i < warmupRuns; i++) {
+                start(classpath, jvmArgs, log);
+            }
+            List<Double> samples = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                samples.add(start(classpath, jvmArgs, log).toNanos() / 1_000_000.0);
+            }
+            StartupResult result = StartupResult.of(mode, samples);
+            System.out.println("[startup] " + result);
+            results.add(result);
+        }
+        LoadTest.write(reportDirectory, new Report(System.getProperty("startup.label", "local"), Instant.now(), results));
+    }
+
+    private static List<String> jvmArgs(String mode, String archive) {
+        return switch (mode) {
+            case "jit" -> List.of();
+            case "aot" -> List.of("-Dspring.aot.enabled=true");
+            case "aot-cds" -> List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive);
+            default -> throw new IllegalArgumentException("Unknown startup mode: " + mode);
+        };
+    }
+
+    /**
+     * @return 프로세스를 시작한 시각부터 첫 요청이 성공할 때까지 걸린 시간
+     */
+    private static Duration start(String classpath, List<String> jvmArgs, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", classpath, "per.study.springdatajpa.SpringDataJpaApplication",
+            "--spring.profiles.active=h2", "--server.port=" + port));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users?size=1")).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toFile()))
+            .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // 아직 포트를 열지 않음
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Application did not answer within " + TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * @param timeToFirstRequestMillis 정렬된 측정값
+     */
+    record StartupResult(String mode, double minMillis, double medianMillis, double maxMillis, List<Double> timeToFirstRequestMillis) {
+
+        static StartupResult of(String mode, List<Double> samples) {
+            List<Double> sorted = samples.stream().sorted().toList();
+            return new StartupResult(mode, sorted.get(0), sorted.get(sorted.size() / 2), sorted.get(sorted.size() - 1), sorted);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: min=%.0fms, median=%.0fms, max=%.0fms", mode, minMillis, medianMillis, maxMillis);
+        }
+    }
+
+    record Report(String label, Instant finishedAt, List<StartupResult> results) implements LoadTest.Labeled {
+    }
+}
@@ -0,0 +1,125 @@
+package per.study.springdatajpa.apis;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션 풀 크기만큼만 요청을 동시에 처리
+ * 가상 스레드는 요청마다 새로 만들어지므로 스레드 풀이 동시 처리 수를 제한하지 않음
+ * 제한이 없으면 수천 개의 요청이 커넥션 풀 안에서 connectionTimeout(30초)까지 기다리고 모두 늦게 실패함
+ *
+ * - 커넥션 수만큼의 permit을 얻은 요청만 처리, 나머지는 timeout까지 기다리다가 503 + Retry-After
+ *   읽기/쓰기 라우팅을 사용하면 primary와 replica 풀 크기의 합 (라우팅 데이터소스를 unwrap하면 primary 하나만 보임)
+ * - 비동기 요청(GET /)은 컨트롤러가 반환하면 permit을 돌려줌 (저장은 CreateUser의 쓰기 스레드가 커넥션 하나로 처리)
+ * - 응답을 쓰는 동안 커넥션을 사용하는 비동기 요청(스트리밍)은 HOLD_UNTIL_COMPLETE 속성을 지정하면 응답이 끝날 때 돌려줌
+ */
+@Component
+@ConditionalOnProperty(prefix = "users.admission", name = "enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // 요청 속성: 비동기 처리가 끝날 때(AsyncListener.onComplete) permit을 돌려줌
+    public static final String HOLD_UNTIL_COMPLETE = AdmissionControlFilter.class.getName() + ".HOLD_UNTIL_COMPLETE";
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    public AdmissionControlFilter(AdmissionProperties properties, DataSource dataSource,
+                                  @Qualifier("primaryDataSource") ObjectProvider<DataSource> primary,
+                                  @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) throws SQLException {
+        int size = properties.permits() > 0 ? properties.permits() : poolSize(dataSource, primary.getIfAvailable(), replica.getIfAvailable());
+        this.permits = new Semaphore(size, true);
+        this.timeoutNanos = properties.timeout().toNanos();
+        log.info("Admission control enabled: {} concurrent requests", size);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+        boolean held = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted() && request.getAttribute(HOLD_UNTIL_COMPLETE) != null) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                held = true;
+            }
+        } finally {
+            if (!held) {
+                permits.release();
+            }
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * 시간 초과, 오류, 클라이언트 연결 끊김도 마지막에 onComplete를 호출함
+     */
+    private class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * @param primary 라우팅을 사용하지 않으면 null
+     * @param replica 라우팅을 사용하지 않으면 null
+     */
+    static int poolSize(DataSource dataSource, DataSource primary, DataSource replica) throws SQLException {
+        if (primary == null || replica == null) {
+            return maximumPoolSize(dataSource);
+        }
+        return maximumPoolSize(primary) + maximumPoolSize(replica);
+    }
+
+    private static int maximumPoolSize(DataSource dataSource) throws SQLException {
+        return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+    }
+}
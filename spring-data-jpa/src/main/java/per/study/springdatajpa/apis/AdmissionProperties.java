@@ -0,0 +1,20 @@
+package per.study.springdatajpa.apis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * users.admission.*
+ * @param enabled 입장 제한 사용 여부
+ * @param permits 동시에 처리할 요청 수 (0이면 커넥션 풀 크기)
+ * @param timeout 입장을 기다리는 최대 시간, 넘으면 503
+ */
+@ConfigurationProperties(prefix = "users.admission")
+public record AdmissionProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("0") int permits,
+    @DefaultValue("1s") Duration timeout
+) {
+}
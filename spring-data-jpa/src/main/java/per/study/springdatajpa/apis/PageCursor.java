@@ -0,0 +1,41 @@
+package per.study.springdatajpa.apis;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 클라이언트에게는 내부 키(id)를 드러내지 않는 불투명한 커서 문자열로 전달
+ * - 형식을 바꿔야 하면 접두사(v1)로 구분
+ */
+final class PageCursor {
+
+    private static final String PREFIX = "v1:";
+
+    private PageCursor() {}
+
+    static String encode(Long afterId) {
+        if (afterId == null) {
+            return null;
+        }
+        byte[] raw = (PREFIX + afterId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException(raw);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+}
@@ -1,25 +1,107 @@
 package per.study.springdatajpa.apis;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import per.study.springdatajpa.apis.UserPageResponse.UserResponse;
 import per.study.springdatajpa.entity.User;
-import per.study.springdatajpa.repository.UserRepository;
+import per.study.springdatajpa.usecase.CreateUser;
+import per.study.springdatajpa.usecase.SearchUser;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 public class UserApis {
 
-    private final UserRepository userRepository;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 스트리밍 응답을 이 건수마다 클라이언트로 전송
+    private static final int STREAM_FLUSH_ROWS = 500;
 
-    public UserApis(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private final CreateUser createUser;
+    private final SearchUser searchUser;
+    private final ObjectMapper objectMapper;
+
+    public UserApis(CreateUser createUser, SearchUser searchUser, ObjectMapper objectMapper) {
+        this.createUser = createUser;
+        this.searchUser = searchUser;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * 저장은 CreateUser가 다른 요청과 묶어서 처리하고, 커밋되면 비동기로 응답
+     */
     @GetMapping(value = "/")
-    public String index() {
-        User user = new User();
+    public CompletableFuture<String> index() {
+        return createUser.execute(new User())
+            .thenApply(user -> String.valueOf(user.getId()));
+    }
 
-        userRepository.save(user);
+    /**
+     * 사용자 목록/검색 (키셋 페이지)
+     * - 응답의 nextCursor를 다음 요청의 cursor로 넘김, 마지막 페이지면 null
+     */
+    @GetMapping(value = "/users")
+    public UserPageResponse users(@RequestParam(name = "q", required = false) String keyword,
+                                  @RequestParam(required = false) String cursor,
+                                  @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return UserPageResponse.from(searchUser.page(keyword, PageCursor.decode(cursor), pageSize));
+    }
+
+    /**
+     * 검색 결과 전체를 NDJSON(한 줄에 사용자 하나)으로 스트리밍
+     * - 응답은 MVC 비동기 스레드에서 쓰고, 그 스레드가 읽기 전용 트랜잭션 안에서 커서로 한 건씩 읽음
+     * - 클라이언트가 느리면 소켓 쓰기가 막히고 커서도 다음 행을 읽지 않음 (버퍼 크기 이상 쌓이지 않음)
+     * - 첫 행은 바로 전송하고 이후에는 STREAM_FLUSH_ROWS건마다 전송
+     * - 스트리밍하는 동안 커넥션을 사용하므로 AdmissionControlFilter의 permit은 응답이 끝날 때 돌려줌
+     */
+    @GetMapping(value = "/users/stream")
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(name = "q", required = false) String keyword,
+                                                             HttpServletRequest request) {
+        request.setAttribute(AdmissionControlFilter.HOLD_UNTIL_COMPLETE, Boolean.TRUE);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            long[] written = {0};
+            try {
+                searchUser.forEach(keyword, user -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(UserResponse.from(user)));
+                        out.write('\n');
+                        if (++written[0] == 1 || written[0] % STREAM_FLUSH_ROWS == 0) {
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // 클라이언트가 연결을 끊으면 조회를 멈춤 (트랜잭션은 롤백)
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
 
-        return String.valueOf(user.getId());
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String rejected(RejectedExecutionException e) {
+        return e.getMessage();
     }
 }
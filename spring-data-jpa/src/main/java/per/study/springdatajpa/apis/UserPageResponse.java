@@ -0,0 +1,23 @@
+package per.study.springdatajpa.apis;
+
+import per.study.springdatajpa.entity.User;
+import per.study.springdatajpa.usecase.UserPage;
+
+import java.util.List;
+
+public record UserPageResponse(List<UserResponse> users, String nextCursor) {
+
+    static UserPageResponse from(UserPage page) {
+        List<UserResponse> users = page.users().stream()
+            .map(UserResponse::from)
+            .toList();
+        return new UserPageResponse(users, PageCursor.encode(page.nextAfterId()));
+    }
+
+    public record UserResponse(Long id, String name) {
+
+        static UserResponse from(User user) {
+            return new UserResponse(user.getId(), user.getName());
+        }
+    }
+}
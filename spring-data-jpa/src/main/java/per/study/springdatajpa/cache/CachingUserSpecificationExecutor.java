@@ -0,0 +1,17 @@
+package per.study.springdatajpa.cache;
+
+import org.springframework.data.jpa.domain.Specification;
+import per.study.springdatajpa.entity.User;
+
+import java.util.List;
+
+/**
+ * UserRepository 조각(fragment): JpaSpecificationExecutor.findAll(Specification)을 UserQueryCache로 대신함
+ * - 조각 구현이 기본 구현(SimpleJpaRepository)보다 우선하므로 userRepository.findAll(spec)을 호출하는 모든 곳에 적용
+ * - KeyedSpecification만 캐시, 나머지는 그대로 조회
+ * - 정렬/페이지를 받는 findAll(spec, ...)은 캐시하지 않음
+ */
+public interface CachingUserSpecificationExecutor {
+
+    List<User> findAll(Specification<User> specification);
+}
@@ -0,0 +1,20 @@
+package per.study.springdatajpa.cache;
+
+import org.springframework.data.jpa.domain.Specification;
+import per.study.springdatajpa.entity.User;
+
+import java.util.List;
+
+public class CachingUserSpecificationExecutorImpl implements CachingUserSpecificationExecutor {
+
+    private final UserQueryCache queryCache;
+
+    public CachingUserSpecificationExecutorImpl(UserQueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    @Override
+    public List<User> findAll(Specification<User> specification) {
+        return queryCache.findAll(specification);
+    }
+}
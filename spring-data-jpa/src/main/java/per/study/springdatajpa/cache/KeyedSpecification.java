@@ -0,0 +1,48 @@
+package per.study.springdatajpa.cache;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+
+/**
+ * 결과를 캐시할 수 있는 Specification: 같은 조건이면 같은 cacheKey()를 반환
+ * - 람다로 만든 Specification은 비교할 수 없으므로 이름과 파라미터로 키를 만듦
+ * - 파라미터는 조건과 같은 방식으로 정규화해서 전달 (예: 대소문자 무시 검색이면 소문자로)
+ * - matcher: 저장/수정/삭제된 엔티티가 조건에 맞는지 메모리에서 확인, 맞지 않으면 쓰기가 있어도 캐시한 결과를 유지
+ */
+public interface KeyedSpecification<T> extends Specification<T> {
+
+    String cacheKey();
+
+    /**
+     * @return entity가 조건에 맞을 수 있으면 true (확인할 수 없으면 true: 모든 쓰기에 결과를 비움)
+     */
+    default boolean matches(T entity) {
+        return true;
+    }
+
+    static <T> KeyedSpecification<T> of(String name, Specification<T> specification, Object... parameters) {
+        return new Keyed<>(name + Arrays.deepToString(parameters), specification, entity -> true);
+    }
+
+    static <T> KeyedSpecification<T> of(String name, Specification<T> specification, java.util.function.Predicate<? super T> matcher, Object... parameters) {
+        return new Keyed<>(name + Arrays.deepToString(parameters), specification, matcher);
+    }
+
+    record Keyed<T>(String cacheKey, Specification<T> specification, java.util.function.Predicate<? super T> matcher) implements KeyedSpecification<T> {
+
+        @Override
+        public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+            return specification.toPredicate(root, query, criteriaBuilder);
+        }
+
+        @Override
+        public boolean matches(T entity) {
+            return matcher.test(entity);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package per.study.springdatajpa.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * users.query-cache.*
+ * @param maxIds 캐시에 보관할 id 수의 합 (넘으면 오래 사용하지 않은 결과부터 제거)
+ * @param expireAfterWrite 쓰기가 없어도 결과를 다시 조회하는 주기 (JPA를 거치지 않은 변경 대비)
+ */
+@ConfigurationProperties(prefix = "users.query-cache")
+public record QueryCacheProperties(
+    @DefaultValue("1000000") long maxIds,
+    @DefaultValue("10m") Duration expireAfterWrite
+) {
+}
@@ -0,0 +1,145 @@
+package per.study.springdatajpa.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import per.study.springdatajpa.entity.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * UserRepository.findAll(Specification) 결과 캐시 (CachingUserSpecificationExecutor로 모든 호출에 적용)
+ * - 키: KeyedSpecification.cacheKey()
+ * - 값: 결과 사용자의 id (엔티티는 캐시하지 않고 적중하면 findAllById로 기본 키 조회, IN 목록이 커지지 않도록 FIND_CHUNK_SIZE개씩)
+ * - 크기: 보관한 id 수의 합이 maxIds를 넘으면 제거 (Caffeine, W-TinyLFU)
+ * - 조회는 Caffeine 밖에서 실행 (compute 안에서 users 전체를 읽으면 같은 버킷의 다른 조회가 기다림)
+ *   같은 조건을 동시에 처음 조회하면 각자 조회하고 마지막 결과가 남음
+ *
+ * 무효화: User를 저장/수정/삭제한 트랜잭션이 커밋되면 영향을 받는 결과만 비움 (UserQueryCacheListener)
+ * - 결과에 그 사용자의 id가 있거나(수정 전 이름으로 포함됐을 수 있음) 조건(KeyedSpecification.matches)에 맞는 결과
+ * - 조회 중에 커밋된 변경은 모아두었다가 결과를 저장한 직후 확인하고, 영향을 받으면 저장한 결과를 버림
+ * - 쓰기마다 캐시한 결과 수만큼 확인 (결과 수는 서로 다른 조건의 수)
+ * - JPQL 벌크 수정이나 직접 SQL은 엔티티 리스너를 거치지 않으므로 expireAfterWrite까지 남을 수 있음
+ *
+ * 메트릭: cache.gets{cache=users.spec, result=hit|miss}, cache.size, cache.evictions, users.query.cache.hit.ratio
+ */
+@Component
+public class UserQueryCache {
+
+    private static final String CACHE_NAME = "users.spec";
+
+    // 적중했을 때 기본 키 조회 한 번에 넣는 id 수
+    private static final int FIND_CHUNK_SIZE = 1_000;
+
+    // UserRepository는 이 캐시를 조각으로 사용하므로 조회는 기본 구현으로 직접
+    private final SimpleJpaRepository<User, Long> users;
+    private final Cache<String, Entry> cache;
+    private final Set<Loading> loading = ConcurrentHashMap.newKeySet();
+
+    public UserQueryCache(EntityManager entityManager, QueryCacheProperties properties, MeterRegistry meterRegistry) {
+        this.users = new SimpleJpaRepository<>(User.class, entityManager);
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(properties.maxIds())
+            .weigher((String key, Entry entry) -> Math.max(entry.ids().length, 1))
+            .expireAfterWrite(properties.expireAfterWrite())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("users.query.cache.hit.ratio", cache, c -> c.stats().hitRate())
+            .description("Hit ratio of the user specification result cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return 조건에 맞는 사용자 (KeyedSpecification이면 id 오름차순)
+     */
+    public List<User> findAll(Specification<User> specification) {
+        if (!(specification instanceof KeyedSpecification<User> keyed)) {
+            return users.findAll(specification);
+        }
+        String key = keyed.cacheKey();
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return findAllById(cached.ids());
+        }
+
+        Loading load = new Loading();
+        loading.add(load);
+        List<User> loaded;
+        Entry entry;
+        try {
+            loaded = new ArrayList<>(users.findAll(keyed));
+            entry = new Entry(keyed, loaded.stream().mapToLong(User::getId).sorted().toArray());
+            cache.put(key, entry);
+        } finally {
+            loading.remove(load);
+        }
+        // 조회하는 동안 커밋된 변경: 목록에서 빠진 뒤에는 changed()가 캐시에 저장된 결과를 직접 확인
+        if (load.changes.stream().anyMatch(entry::affectedBy)) {
+            cache.asMap().remove(key, entry);
+        }
+        loaded.sort(Comparator.comparing(User::getId));
+        return loaded;
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 user의 영향을 받는 결과를 비움 (트랜잭션 밖이면 바로)
+     */
+    void changedAfterCommit(User user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed(user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changed(user);
+            }
+        });
+    }
+
+    private void changed(User user) {
+        // 조회 중인 결과에 먼저 알린 뒤 저장된 결과를 확인 (순서가 바뀌면 그 사이에 저장된 결과를 놓침)
+        loading.forEach(load -> load.changes.add(user));
+        cache.asMap().values().removeIf(entry -> entry.affectedBy(user));
+    }
+
+    private List<User> findAllById(long[] ids) {
+        List<User> found = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += FIND_CHUNK_SIZE) {
+            found.addAll(users.findAllById(Arrays.stream(ids, from, Math.min(from + FIND_CHUNK_SIZE, ids.length)).boxed().toList()));
+        }
+        found.sort(Comparator.comparing(User::getId));
+        return found;
+    }
+
+    /**
+     * @param ids 오름차순
+     */
+    private record Entry(KeyedSpecification<User> specification, long[] ids) {
+
+        boolean affectedBy(User user) {
+            return Arrays.binarySearch(ids, user.getId()) >= 0 || specification.matches(user);
+        }
+    }
+
+    private static final class Loading {
+
+        private final Queue<User> changes = new ConcurrentLinkedQueue<>();
+    }
+}
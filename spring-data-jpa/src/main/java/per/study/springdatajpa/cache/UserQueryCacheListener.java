@@ -0,0 +1,28 @@
+package per.study.springdatajpa.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import per.study.springdatajpa.entity.User;
+
+/**
+ * User 엔티티 리스너: 저장/수정/삭제가 커밋되면 조회 결과 캐시에서 그 사용자의 영향을 받는 결과를 비움
+ */
+@Component
+public class UserQueryCacheListener {
+
+    private final ObjectProvider<UserQueryCache> queryCache;
+
+    public UserQueryCacheListener(ObjectProvider<UserQueryCache> queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(User user) {
+        queryCache.getObject().changedAfterCommit(user);
+    }
+}
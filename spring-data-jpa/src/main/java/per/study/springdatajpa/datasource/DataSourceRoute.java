@@ -0,0 +1,5 @@
+package per.study.springdatajpa.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY, REPLICA
+}
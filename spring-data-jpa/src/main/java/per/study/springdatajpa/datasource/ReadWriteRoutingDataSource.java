@@ -0,0 +1,53 @@
+package per.study.springdatajpa.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica, 나머지는 primary로 보냄
+ * - 커넥션을 얻는 시점에 결정하므로 LazyConnectionDataSourceProxy로 감싸서 사용해야 함
+ *   (트랜잭션 매니저는 읽기 전용 여부를 등록하기 전에 커넥션을 요청함)
+ * - replica 복제 지연이 크면(ReplicationLagMonitor) 읽기 전용 트랜잭션도 primary 사용
+ *
+ * 메트릭: datasource.route (route = primary/replica, reason = write/read/lag)
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicationLagMonitor lagMonitor;
+    private final Counter writes;
+    private final Counter reads;
+    private final Counter lagFallbacks;
+
+    public ReadWriteRoutingDataSource(ReplicationLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.writes = counter(meterRegistry, DataSourceRoute.PRIMARY, "write");
+        this.reads = counter(meterRegistry, DataSourceRoute.REPLICA, "read");
+        this.lagFallbacks = counter(meterRegistry, DataSourceRoute.PRIMARY, "lag");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return DataSourceRoute.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            lagFallbacks.increment();
+            return DataSourceRoute.PRIMARY;
+        }
+        reads.increment();
+        return DataSourceRoute.REPLICA;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, DataSourceRoute route, String reason) {
+        return Counter.builder("datasource.route")
+            .description("Connections handed out per datasource route")
+            .tag("route", route.name().toLowerCase(Locale.ROOT))
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package per.study.springdatajpa.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * checkInterval마다 replica의 복제 지연을 확인
+ * - 지연이 maxLag보다 크거나, 알 수 없거나, 확인에 실패하면 replica를 사용하지 않음
+ * - 메트릭: datasource.replica.lag (초, 알 수 없으면 NaN)
+ */
+public class ReplicationLagMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLagMonitor.class);
+
+    private final DataSource replica;
+    private final ReplicationLagProbe probe;
+    private final Duration maxLag;
+    private final ScheduledExecutorService scheduler;
+    private volatile Duration lastLag = Duration.ZERO;
+    private volatile boolean replicaUsable = true;
+
+    public ReplicationLagMonitor(DataSource replica, ReplicationLagProbe probe, RoutingProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.probe = probe;
+        this.maxLag = properties.maxLag();
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lastLag == null ? Double.NaN : monitor.lastLag.toMillis() / 1000.0)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replication-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.checkInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    void check() {
+        boolean usable;
+        try {
+            lastLag = probe.currentLag(replica);
+            usable = lastLag != null && lastLag.compareTo(maxLag) <= 0;
+        } catch (Exception e) {
+            log.warn("Failed to check replication lag", e);
+            lastLag = null;
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            log.info("Replica {} (lag: {})", usable ? "back in rotation" : "out of rotation, reads go to primary", lastLag);
+        }
+        replicaUsable = usable;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,38 @@
+package per.study.springdatajpa.datasource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * replica의 복제 지연을 측정
+ * - 지연을 알 수 없으면(복제 중단 등) null
+ */
+@FunctionalInterface
+public interface ReplicationLagProbe {
+
+    /**
+     * 복제를 사용하지 않는 경우 (로컬 H2 등): 항상 지연 없음
+     */
+    ReplicationLagProbe NONE = replica -> Duration.ZERO;
+
+    /**
+     * MySQL 8.0.22+: SHOW REPLICA STATUS의 Seconds_Behind_Source
+     */
+    ReplicationLagProbe MYSQL = replica -> {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            long seconds = resultSet.getLong("Seconds_Behind_Source");
+            return resultSet.wasNull() ? null : Duration.ofSeconds(seconds);
+        }
+    };
+
+    Duration currentLag(DataSource replica) throws SQLException;
+}
@@ -0,0 +1,21 @@
+package per.study.springdatajpa.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * users.datasource.routing.*
+ * 커넥션 정보는 users.datasource.primary.* / users.datasource.replica.* (spring.datasource.*와 같은 형식)
+ * @param enabled 읽기/쓰기 라우팅 사용 여부 (false면 spring.datasource 하나만 사용)
+ * @param maxLag 복제 지연이 이보다 크면 읽기 전용 트랜잭션도 primary 사용
+ * @param checkInterval 복제 지연을 확인하는 주기
+ */
+@ConfigurationProperties(prefix = "users.datasource.routing")
+public record RoutingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("5s") Duration maxLag,
+    @DefaultValue("1s") Duration checkInterval
+) {
+}
@@ -1,21 +1,40 @@
 package per.study.springdatajpa.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import per.study.springdatajpa.cache.UserQueryCacheListener;
+import per.study.springdatajpa.search.UserSearchIndexListener;
 
 @Entity
 @Table(name = "users")
+@EntityListeners({UserSearchIndexListener.class, UserQueryCacheListener.class})
+@SequenceGenerator(name = "USERS_SEQ_GENERATOR", sequenceName = "users_seq", allocationSize = 50)
 public class User {
 
+    /**
+     * IDENTITY는 INSERT를 실행해야 id를 알 수 있어서 JDBC 배치가 불가능
+     * 시퀀스 + pooled 옵티마이저(allocationSize = 50)는 id를 먼저 받아 두고 INSERT를 배치로 묶을 수 있음
+     * - 시퀀스가 없는 MySQL에서는 Hibernate가 users_seq 테이블(next_val)로 시퀀스를 흉내 냄
+     * - 기존 데이터베이스는 db/mysql/users_seq.sql 로 users_seq를 MAX(id) 뒤에서 시작하도록 초기화 (ddl-auto: validate)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "USERS_SEQ_GENERATOR")
     private Long id;
 
     private String name;
 
+    public User() {
+    }
+
+    public User(String name) {
+        this.name = name;
+    }
+
     public Long getId() {
         return id;
     }
@@ -23,4 +42,8 @@ public class User {
     public String getName() {
         return name;
     }
+
+    public void setName(String name) {
+        this.name = name;
+    }
 }
@@ -1,9 +1,61 @@
 package per.study.springdatajpa.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import per.study.springdatajpa.cache.CachingUserSpecificationExecutor;
 import per.study.springdatajpa.entity.User;
 
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * findAll(Specification)은 CachingUserSpecificationExecutor가 UserQueryCache를 거쳐서 처리
+ */
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, CachingUserSpecificationExecutor {
+
+    /**
+     * 검색 색인을 만들 때 사용, 엔티티 대신 (id, name)만 커서로 읽음 (트랜잭션 안에서 사용하고 close 필요)
+     */
+    @Query("select u.id, u.name from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamIdAndName();
+
+    /**
+     * 키셋(seek) 페이지: OFFSET 대신 마지막으로 본 id 다음부터 읽으므로 몇 번째 페이지든 비용이 같음
+     * - pageable은 크기만 사용 (List 반환이므로 count 쿼리 없음)
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 검색 색인이 준비되기 전에 사용하는 키셋 페이지 검색
+     */
+    List<User> findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String name, Long id, Pageable pageable);
+
+    /**
+     * 전체 사용자를 id 순서로 커서 조회 (스트리밍 응답용, 트랜잭션 안에서 사용하고 close 필요)
+     * - 읽기 전용: 스냅샷을 만들지 않음, 처리한 엔티티는 호출한 쪽에서 분리
+     * - MySQL은 useCursorFetch=true일 때만 fetch size만큼씩 가져옴
+     */
+    @Query("select u from User u order by u.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAll();
+
+    /**
+     * 검색 색인이 준비되기 전에 사용하는 스트리밍 검색
+     */
+    @Query("select u from User u where lower(u.name) like lower(concat('%', :keyword, '%')) order by u.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamByNameContaining(@Param("keyword") String keyword);
 }
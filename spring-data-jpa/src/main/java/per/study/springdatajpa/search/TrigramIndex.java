@@ -0,0 +1,175 @@
+package per.study.springdatajpa.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 부분 문자열 검색을 위한 3-gram 역색인
+ * - "duho" -> "duh", "uho" 처럼 3글자씩 잘라서 글자 조각마다 포함한 문서(id) 목록을 보관
+ * - 검색어의 조각 목록을 교집합한 뒤 원문에 검색어가 실제로 포함되는지 확인 (조각 순서가 다른 경우 제외)
+ * - 검색 비용이 전체 문서 수가 아니라 가장 짧은 조각 목록의 길이에 비례
+ * - 조각 목록과 원문을 id 순으로 보관: afterId 위치를 바로 찾아서 limit개를 찾으면 멈춤 (페이지, 스트리밍)
+ * - 3글자보다 짧은 검색어는 조각을 만들 수 없으므로 보관한 원문 전체를 확인
+ * - 대소문자를 구분하지 않음
+ * - 같은 문서의 변경은 id별 잠금(LOCK_STRIPES개로 나눔)으로 한 번에 하나씩: 원문과 조각 목록을 따로 바꾸므로
+ *   겹치면 이전 원문의 조각 제거가 새 원문의 조각 추가 뒤에 실행되어 조각이 없는 문서가 남을 수 있음
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, String> documents = new ConcurrentSkipListMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public TrigramIndex() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 문서를 추가하거나 바꿈, text가 null이면 제거
+     */
+    public void put(long id, String text) {
+        String normalized = normalize(text);
+        synchronized (locks[Long.hashCode(id) & (LOCK_STRIPES - 1)]) {
+            String previous = normalized == null ? documents.remove(id) : documents.put(id, normalized);
+            Set<String> removed = previous == null ? Set.of() : trigrams(previous);
+            Set<String> added = normalized == null ? Set.of() : trigrams(normalized);
+            // 바뀌지 않은 조각은 그대로 두고 차이만 반영
+            for (String gram : removed) {
+                if (added.contains(gram)) {
+                    continue;
+                }
+                postings.computeIfPresent(gram, (key, posting) -> {
+                    posting.remove(id);
+                    return posting.size() == 0 ? null : posting;
+                });
+            }
+            for (String gram : added) {
+                if (removed.contains(gram)) {
+                    continue;
+                }
+                postings.compute(gram, (key, posting) -> {
+                    Posting target = posting != null ? posting : new Posting();
+                    target.add(id);
+                    return target;
+                });
+            }
+        }
+    }
+
+    public void remove(long id) {
+        put(id, null);
+    }
+
+    /**
+     * @return 검색어를 포함한 문서의 id (오름차순)
+     */
+    public List<Long> search(String keyword) {
+        return search(keyword, Long.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param afterId 이 id보다 큰 문서만
+     * @param limit 최대 개수
+     * @return 검색어를 포함한 문서의 id (오름차순)
+     */
+    public List<Long> search(String keyword, long afterId, int limit) {
+        String normalized = normalize(keyword);
+        if (normalized == null || normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        List<Long> matches = new ArrayList<>();
+        if (normalized.length() < GRAM) {
+            for (Map.Entry<Long, String> document : documents.tailMap(afterId, false).entrySet()) {
+                if (document.getValue().contains(normalized)) {
+                    matches.add(document.getKey());
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return matches;
+        }
+        List<Posting> candidates = new ArrayList<>();
+        for (String gram : trigrams(normalized)) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            candidates.add(posting);
+        }
+        candidates.sort(Comparator.comparingInt(Posting::size));
+        List<Posting> others = candidates.subList(1, candidates.size());
+        for (Long id : candidates.get(0).ids.tailSet(afterId, false)) {
+            if (others.stream().allMatch(posting -> posting.ids.contains(id)) && contains(id, normalized)) {
+                matches.add(id);
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private boolean contains(Long id, String keyword) {
+        String text = documents.get(id);
+        return text != null && text.contains(keyword);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * 조각 하나를 포함한 문서 id 목록 (ConcurrentSkipListSet.size()는 전체를 세므로 크기를 따로 보관)
+     * 변경은 postings.compute() 안에서만 하므로 같은 조각의 변경끼리 겹치지 않음
+     */
+    private static final class Posting {
+
+        private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(long id) {
+            if (ids.add(id)) {
+                size.incrementAndGet();
+            }
+        }
+
+        void remove(long id) {
+            if (ids.remove(id)) {
+                size.decrementAndGet();
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,120 @@
+package per.study.springdatajpa.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import per.study.springdatajpa.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * User.name 부분 문자열 검색 색인
+ * - 애플리케이션이 준비되면 users 전체(id, name)를 스트리밍으로 읽어서 색인을 만듦
+ * - 이후에는 UserSearchIndexListener가 저장/수정/삭제를 커밋 후에 반영
+ * - 색인을 만드는 동안(isReady() == false)에는 SearchUser가 데이터베이스 LIKE 검색을 사용
+ * - 색인을 만드는 동안 커밋된 변경은 모아두었다가 다 읽은 뒤에 순서대로 반영
+ *   (바로 반영하면 아직 읽지 않은 이전 이름이 나중에 덮어쓰거나 삭제된 사용자를 되살림)
+ *
+ * 주의: JPA를 거치지 않은 변경(직접 SQL, 다른 인스턴스)은 반영되지 않으므로 인스턴스가 여러 개면 재시작이나 재색인이 필요
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private final TrigramIndex index = new TrigramIndex();
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile boolean ready;
+
+    // 색인을 만드는 동안만 null이 아님, buildLock으로 보호
+    private final Object buildLock = new Object();
+    private List<Runnable> pending;
+
+    public UserSearchIndex(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        synchronized (buildLock) {
+            pending = new ArrayList<>();
+        }
+        int replayed;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = userRepository.streamIdAndName()) {
+                    rows.forEach(row -> index.put((Long) row[0], (String) row[1]));
+                }
+            });
+        } finally {
+            synchronized (buildLock) {
+                replayed = pending.size();
+                pending.forEach(Runnable::run);
+                pending = null;
+            }
+        }
+        ready = true;
+        log.info("User search index built: {} users in {} ms ({} changes replayed)", index.size(), (System.nanoTime() - start) / 1_000_000, replayed);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return 이름에 keyword를 포함한 사용자 id (오름차순)
+     */
+    public List<Long> search(String keyword) {
+        return index.search(keyword);
+    }
+
+    /**
+     * @return 이름에 keyword를 포함한 사용자 중 afterId보다 큰 id를 오름차순으로 최대 limit개
+     */
+    public List<Long> search(String keyword, long afterId, int limit) {
+        return index.search(keyword, afterId, limit);
+    }
+
+    void put(long id, String name) {
+        afterCommit(() -> apply(() -> index.put(id, name)));
+    }
+
+    void remove(long id) {
+        afterCommit(() -> apply(() -> index.remove(id)));
+    }
+
+    private void apply(Runnable change) {
+        synchronized (buildLock) {
+            if (pending != null) {
+                pending.add(change);
+                return;
+            }
+        }
+        change.run();
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
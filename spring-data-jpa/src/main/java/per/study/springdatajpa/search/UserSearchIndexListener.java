@@ -0,0 +1,33 @@
+package per.study.springdatajpa.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import per.study.springdatajpa.entity.User;
+
+/**
+ * User 엔티티 리스너: 저장/수정/삭제를 검색 색인에 반영
+ * - EntityManagerFactory를 만드는 중에 생성되므로 색인(UserRepository를 사용)은 ObjectProvider로 나중에 가져옴
+ */
+@Component
+public class UserSearchIndexListener {
+
+    private final ObjectProvider<UserSearchIndex> searchIndex;
+
+    public UserSearchIndexListener(ObjectProvider<UserSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void indexed(User user) {
+        searchIndex.getObject().put(user.getId(), user.getName());
+    }
+
+    @PostRemove
+    public void removed(User user) {
+        searchIndex.getObject().remove(user.getId());
+    }
+}
@@ -0,0 +1,194 @@
+package per.study.springdatajpa.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * JDBC 인터페이스를 동적 프록시로 감싸서 SqlTracer에 실행 시간, 배치 크기, 행 수를 전달
+ * - Connection: prepareStatement/prepareCall/createStatement가 반환하는 문장을 감쌈
+ * - Statement: execute*, addBatch/executeBatch
+ * - ResultSet: next()가 true를 반환한 횟수를 세고 close()할 때 기록
+ */
+final class JdbcProxies {
+
+    private JdbcProxies() {}
+
+    static Connection connection(Connection target, SqlTracer tracer) {
+        return proxy(Connection.class, new ConnectionHandler(target, tracer));
+    }
+
+    static Connection target(Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass()) && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler) {
+            return (Connection) ((ConnectionHandler) Proxy.getInvocationHandler(connection)).target;
+        }
+        return connection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * equals/hashCode는 프록시 자신을 기준으로 비교 (Hibernate가 문장을 Map 키로 사용)
+     */
+    private abstract static class TargetHandler implements InvocationHandler {
+
+        final Object target;
+
+        TargetHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class ConnectionHandler extends TargetHandler {
+
+        private final SqlTracer tracer;
+
+        private ConnectionHandler(Connection target, SqlTracer tracer) {
+            super(target);
+            this.tracer = tracer;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0], tracer));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0], tracer));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, null, tracer));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private static class StatementHandler extends TargetHandler {
+
+        private final SqlTracer tracer;
+        private String sql;
+        private int batched;
+
+        private StatementHandler(Statement target, String sql, SqlTracer tracer) {
+            super(target);
+            this.sql = sql;
+            this.tracer = tracer;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batched++;
+                if (args != null && args.length == 1) {
+                    sql = (String) args[0];
+                }
+                return delegate(method, args);
+            }
+            if (name.equals("clearBatch")) {
+                batched = 0;
+                return delegate(method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return delegate(method, args);
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+            long start = System.nanoTime();
+            Object result = delegate(method, args);
+            long elapsed = System.nanoTime() - start;
+
+            tracer.recordExecution(executed, elapsed, batch ? batched : 0, rows(result));
+            if (batch) {
+                batched = 0;
+            }
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, executed, tracer));
+            }
+            return result;
+        }
+
+        /**
+         * @return 변경된 행 수, 알 수 없으면 -1 (SELECT는 ResultSet을 닫을 때 기록)
+         */
+        private static long rows(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return ((Number) result).longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0); // SUCCESS_NO_INFO(-2)는 건수를 알 수 없음
+                }
+                return rows;
+            }
+            if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            return -1;
+        }
+    }
+
+    private static class ResultSetHandler extends TargetHandler {
+
+        private final String sql;
+        private final SqlTracer tracer;
+        private long rows;
+        private boolean recorded;
+
+        private ResultSetHandler(ResultSet target, String sql, SqlTracer tracer) {
+            super(target);
+            this.sql = sql;
+            this.tracer = tracer;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (name.equals("close") && !recorded) {
+                recorded = true;
+                tracer.recordRowsRead(sql, rows);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package per.study.springdatajpa.sql;
+
+import java.time.Instant;
+
+/**
+ * 느린 SQL 한 건 (파라미터 값은 기록하지 않음)
+ */
+public record SlowQuery(Instant time, String dataSource, String sql, long elapsedMicros, int batchSize, String thread) {
+}
@@ -0,0 +1,57 @@
+package per.study.springdatajpa.sql;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 문장의 형태: 값과 공백 차이를 없애서 같은 쿼리를 하나로 집계
+ * - 주석, 문자열/숫자 리터럴 -> ?, IN (?, ?, ...) -> IN (?), 공백 정리, 소문자
+ * - Hibernate가 만드는 SQL은 문자열 인스턴스가 재사용되므로 결과를 캐시 (최대 MAX_CACHED개)
+ */
+final class SqlShape {
+
+    private static final int MAX_CACHED = 10_000;
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private SqlShape() {}
+
+    static String of(String sql) {
+        if (sql == null) {
+            return "unknown";
+        }
+        String shape = cache.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        shape = normalize(sql);
+        if (cache.size() < MAX_CACHED) {
+            cache.put(sql, shape);
+        }
+        return shape;
+    }
+
+    static String type(String shape) {
+        int space = shape.indexOf(' ');
+        String keyword = space < 0 ? shape : shape.substring(0, space);
+        return switch (keyword) {
+            case "select", "insert", "update", "delete", "merge" -> keyword;
+            default -> "other";
+        };
+    }
+
+    private static String normalize(String sql) {
+        String shape = COMMENT.matcher(sql).replaceAll(" ");
+        shape = STRING.matcher(shape).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+}
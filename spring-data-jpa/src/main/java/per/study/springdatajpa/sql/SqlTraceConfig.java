@@ -0,0 +1,57 @@
+package per.study.springdatajpa.sql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ### SQL 추적 ###
+ * spring.jpa.show-sql 대신 커넥션 풀(HikariDataSource)마다 SqlTracer를 연결
+ * - jdbc.statement / jdbc.batch.size / jdbc.rows: /actuator/metrics (tag datasource = 풀 이름, 이름이 없으면 빈 이름으로 지정)
+ * - 느린 SQL: /actuator/slowqueries
+ * - 커넥션을 기다린 시간: Hikari가 기록하는 hikaricp.connections.acquire / hikaricp.connections.pending
+ *
+ * 읽기/쓰기 라우팅(primary, replica)을 사용하면 두 풀이 각각 감싸짐
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "users.sql-trace", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(SqlTraceProperties properties) {
+        return new SlowQueryLog(properties.slowLogSize());
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    /**
+     * 데이터소스보다 먼저 만들어지므로 나머지 빈은 감쌀 때 꺼냄 (static)
+     */
+    @Bean
+    public static BeanPostProcessor sqlTracingDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                      ObjectProvider<SqlTraceProperties> properties,
+                                                                      ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource dataSource)) {
+                    return bean;
+                }
+                // 풀이 시작되기 전이라 자동 설정 풀은 이름이 없음 (시작할 때 HikariPool-N이 됨)
+                // 빈 이름으로 정해두면 jdbc.*{datasource}와 hikaricp.*{pool} 태그가 같아짐
+                if (dataSource.getPoolName() == null) {
+                    dataSource.setPoolName(beanName);
+                }
+                SqlTracer tracer = new SqlTracer(meterRegistry.getObject(), dataSource.getPoolName(), properties.getObject().slowThreshold(), slowQueryLog.getObject());
+                return new TracingDataSource(dataSource, tracer);
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package per.study.springdatajpa.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * users.sql-trace.*
+ * @param enabled SQL 추적 사용 여부
+ * @param slowThreshold 이 시간 이상 걸린 SQL을 느린 SQL로 보관
+ * @param slowLogSize 보관할 느린 SQL 수 (/actuator/slowqueries)
+ */
+@ConfigurationProperties(prefix = "users.sql-trace")
+public record SqlTraceProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100ms") Duration slowThreshold,
+    @DefaultValue("256") int slowLogSize
+) {
+}
@@ -0,0 +1,113 @@
+package per.study.springdatajpa.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ### SQL 추적 ###
+ * show_sql은 모든 SQL을 실행하는 스레드에서 표준 출력에 쓰므로 부하가 있을 때는 끌 수밖에 없음
+ * 출력 대신 SQL 형태(SqlShape)별로 메트릭에 기록
+ *
+ * - jdbc.statement: 실행 시간 (tag: datasource, type, sql)
+ *   백분위 히스토그램은 형태마다 버킷 수십 개의 시계열을 만들므로 기본으로 끔
+ *   (필요하면 management.metrics.distribution.percentiles-histogram.jdbc.statement=true)
+ * - jdbc.batch.size: executeBatch() 한 번에 묶인 문장 수
+ * - jdbc.rows: 변경된 행 수(UPDATE/INSERT/DELETE) 또는 읽은 행 수(SELECT, ResultSet을 닫을 때)
+ * - slowThreshold 이상 걸린 SQL은 SlowQueryLog에 보관
+ *
+ * Micrometer의 Timer/DistributionSummary는 락 없이 누적하고, 형태별 미터는 한 번 만든 뒤 재사용
+ * 형태는 MAX_SHAPES개까지만 따로 기록하고 나머지는 sql=other로 합침
+ * (리터럴을 SQL에 직접 넣는 쿼리가 있으면 형태가 계속 늘어나서 미터와 시계열이 끝없이 생김)
+ */
+public class SqlTracer {
+
+    private static final int MAX_SLOW_SQL_LENGTH = 2_000;
+    static final int MAX_SHAPES = 500;
+    private static final String OTHER_SHAPE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final String dataSource;
+    private final long slowThresholdNanos;
+    private final SlowQueryLog slowQueryLog;
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    public SqlTracer(MeterRegistry meterRegistry, String dataSource, Duration slowThreshold, SlowQueryLog slowQueryLog) {
+        this.meterRegistry = meterRegistry;
+        this.dataSource = dataSource;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    public Connection wrap(Connection connection) {
+        return JdbcProxies.connection(connection, this);
+    }
+
+    /**
+     * wrap()으로 감싼 커넥션이면 원래 커넥션을 반환
+     */
+    public static Connection unwrap(Connection connection) {
+        return JdbcProxies.target(connection);
+    }
+
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    void recordExecution(String sql, long elapsedNanos, int batchSize, long rows) {
+        StatementMeters statementMeters = meters(sql);
+        statementMeters.latency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (batchSize > 0) {
+            statementMeters.batchSize.record(batchSize);
+        }
+        if (rows >= 0) {
+            statementMeters.rows.record(rows);
+        }
+        if (elapsedNanos >= slowThresholdNanos) {
+            String text = sql == null ? "unknown" : sql.length() > MAX_SLOW_SQL_LENGTH ? sql.substring(0, MAX_SLOW_SQL_LENGTH) : sql;
+            slowQueryLog.record(new SlowQuery(Instant.now(), dataSource, text, TimeUnit.NANOSECONDS.toMicros(elapsedNanos), batchSize, Thread.currentThread().getName()));
+        }
+    }
+
+    void recordRowsRead(String sql, long rows) {
+        meters(sql).rows.record(rows);
+    }
+
+    private StatementMeters meters(String sql) {
+        String shape = SqlShape.of(sql);
+        StatementMeters statementMeters = meters.get(shape);
+        if (statementMeters != null) {
+            return statementMeters;
+        }
+        // 동시에 처음 보는 형태가 들어오면 MAX_SHAPES를 조금 넘을 수 있음
+        return meters.computeIfAbsent(meters.size() < MAX_SHAPES ? shape : OTHER_SHAPE, this::createMeters);
+    }
+
+    private StatementMeters createMeters(String shape) {
+        String type = SqlShape.type(shape);
+        return new StatementMeters(
+            Timer.builder("jdbc.statement")
+                .description("JDBC statement execution time per SQL shape")
+                .tags("datasource", dataSource, "type", type, "sql", shape)
+                .register(meterRegistry),
+            DistributionSummary.builder("jdbc.batch.size")
+                .description("Statements per executeBatch() call")
+                .tags("datasource", dataSource, "type", type, "sql", shape)
+                .register(meterRegistry),
+            DistributionSummary.builder("jdbc.rows")
+                .description("Rows updated or read per statement")
+                .tags("datasource", dataSource, "type", type, "sql", shape)
+                .register(meterRegistry)
+        );
+    }
+
+    private record StatementMeters(Timer latency, DistributionSummary batchSize, DistributionSummary rows) {
+    }
+}
@@ -0,0 +1,31 @@
+package per.study.springdatajpa.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 커넥션 풀이 돌려준 커넥션을 SqlTracer로 감쌈
+ * - unwrap()은 원래 데이터소스로 전달되므로 HikariDataSource 메트릭과 설정은 그대로 동작
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private final SqlTracer tracer;
+
+    public TracingDataSource(DataSource target, SqlTracer tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return tracer.wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return tracer.wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+}
@@ -0,0 +1,151 @@
+package per.study.springdatajpa.usecase;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import per.study.springdatajpa.entity.User;
+import per.study.springdatajpa.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사용자 등록 (write-behind)
+ * 요청마다 트랜잭션 하나, INSERT 하나를 실행하면 커넥션 하나가 처리할 수 있는 요청 수가 왕복 시간에 묶임
+ *
+ * 1. 요청 스레드는 대기열에 넣고 CompletableFuture를 돌려받음
+ * 2. 쓰기 스레드 하나가 maxBatchSize건이 모이거나 maxDelay가 지나면 모은 사용자를 트랜잭션 하나로 저장
+ *    - id는 시퀀스(pooled)로 미리 받아 두므로 INSERT가 JDBC 배치로 묶임
+ * 3. 커밋이 끝나면 각 요청의 future를 id가 채워진 User로 완료, 실패하면 배치 전체를 예외로 완료
+ *
+ * 요청은 커밋 후에 응답하므로 응답을 받은 사용자는 항상 저장되어 있음
+ * 대기열이 가득 차거나 종료 중이면 RejectedExecutionException (저장 속도보다 요청이 빠른 경우)
+ * 배치 하나가 실패해도(Error 포함) 해당 배치만 예외로 완료하고 쓰기 스레드는 계속 동작
+ */
+@Service
+public class CreateUser {
+
+    private static final Logger log = LoggerFactory.getLogger(CreateUser.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<PendingUser> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public CreateUser(UserRepository userRepository, PlatformTransactionManager transactionManager, WriteBehindProperties properties) {
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.writer = new Thread(this::drain, "user-write-behind");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    public CompletableFuture<User> execute(User user) {
+        PendingUser pending = new PendingUser(user, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            pending.result().completeExceptionally(new RejectedExecutionException("User write-behind queue is full"));
+            return pending.result();
+        }
+        // 확인과 offer 사이에 종료가 시작되면 쓰기 스레드가 이미 끝났을 수 있음
+        // 대기열에서 다시 꺼낼 수 있으면 쓰기 스레드가 가져가지 않은 것이므로 거절
+        if (!running && queue.remove(pending)) {
+            pending.result().completeExceptionally(new RejectedExecutionException("User write-behind is shutting down"));
+        }
+        return pending.result();
+    }
+
+    /**
+     * 종료할 때 대기열에 남은 사용자를 모두 저장한 뒤 멈춤
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void drain() {
+        List<PendingUser> batch = new ArrayList<>(properties.maxBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingUser first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    collect(batch);
+                    write(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(batch, e);
+                    return;
+                } catch (Throwable e) {
+                    log.error("User write-behind batch failed", e);
+                    fail(batch, e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            // 마지막 확인 뒤에 들어온 요청이 남아 있으면 future가 완료되지 않으므로 거절
+            List<PendingUser> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            fail(remaining, new RejectedExecutionException("User write-behind stopped"));
+        }
+    }
+
+    private void collect(List<PendingUser> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.maxDelay().toNanos();
+        while (batch.size() < properties.maxBatchSize()) {
+            // 이미 쌓여 있는 요청은 기다리지 않고 가져옴
+            if (queue.drainTo(batch, properties.maxBatchSize() - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingUser next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingUser> batch) {
+        List<User> users = batch.stream().map(PendingUser::user).toList();
+        try {
+            transaction.executeWithoutResult(status -> userRepository.saveAll(users));
+        } catch (Throwable e) {
+            log.warn("Failed to write {} users", users.size(), e);
+            fail(batch, e);
+            return;
+        }
+        batch.forEach(pending -> pending.result().complete(pending.user()));
+    }
+
+    private static void fail(List<PendingUser> batch, Throwable cause) {
+        batch.forEach(pending -> pending.result().completeExceptionally(cause));
+    }
+
+    private record PendingUser(User user, CompletableFuture<User> result) {
+    }
+}
@@ -1,28 +1,133 @@
 package per.study.springdatajpa.usecase;
 
-import org.springframework.data.jpa.domain.Specification;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import per.study.springdatajpa.cache.KeyedSpecification;
 import per.study.springdatajpa.entity.User;
 import per.study.springdatajpa.repository.UserRepository;
+import per.study.springdatajpa.search.UserSearchIndex;
 
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 조회만 하는 유스케이스는 읽기 전용 트랜잭션으로 실행
+ * 1. 세션 기본값을 읽기 전용으로 지정: 조회한 엔티티의 스냅샷을 만들지 않음
+ * 2. 플러시 모드 MANUAL: 커밋할 때 변경 감지(플러시)를 하지 않음
+ * 3. 커넥션 setReadOnly(true): 드라이버와 데이터베이스에 읽기 전용 트랜잭션임을 알림 (MySQL은 SET SESSION TRANSACTION READ ONLY)
+ *
+ * LIKE '%duho%'는 앞에 와일드카드가 있어서 인덱스를 사용하지 못하고 users 전체를 읽음
+ * 색인(UserSearchIndex)이 준비되면 색인에서 id를 찾고 해당 사용자만 조회
+ * 색인이 준비되기 전에는 userRepository.findAll(Specification)이 결과를 UserQueryCache에 캐시해서 같은 검색어로 users 전체를 다시 읽지 않음
+ */
 @Service
+@Transactional(readOnly = true)
 public class SearchUser {
 
+    private static final int STREAM_CHUNK_SIZE = 1_000;
+
     private final UserRepository userRepository;
+    private final UserSearchIndex searchIndex;
+    private final EntityManager entityManager;
 
-    public SearchUser(UserRepository userRepository) {
+    public SearchUser(UserRepository userRepository, UserSearchIndex searchIndex, EntityManager entityManager) {
         this.userRepository = userRepository;
+        this.searchIndex = searchIndex;
+        this.entityManager = entityManager;
     }
 
     public void execute() {
-        for (User user: userRepository.findAll(makeSpecification())) {
+        for (User user: search("duho")) {
             System.out.println(user.getName());
         }
     }
 
-    public Specification<User> makeSpecification() {
-        return ((root, query, criteriaBuilder) ->
-            criteriaBuilder.like(root.get("username").as(String.class), "%duho%")
+    public List<User> search(String keyword) {
+        if (!searchIndex.isReady()) {
+            return userRepository.findAll(makeSpecification(keyword));
+        }
+        List<User> users = userRepository.findAllById(searchIndex.search(keyword));
+        users.sort(Comparator.comparing(User::getId));
+        return users;
+    }
+
+    /**
+     * 키셋 페이지 조회
+     * @param keyword 이름 검색어 (null이면 전체 목록)
+     * @param afterId 이전 페이지의 마지막 id (첫 페이지는 null)
+     */
+    public UserPage page(String keyword, Long afterId, int size) {
+        long after = afterId == null ? 0L : afterId;
+        // 한 건 더 읽어서 다음 페이지가 있는지 확인
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<User> users;
+        if (keyword == null || keyword.isBlank()) {
+            users = userRepository.findByIdGreaterThanOrderByIdAsc(after, limit);
+        } else if (searchIndex.isReady()) {
+            // 정렬된 조각 목록에서 after 위치를 바로 찾고 size + 1개를 찾으면 멈춤 (일치하는 id 전체를 모으지 않음)
+            List<Long> ids = searchIndex.search(keyword, after, size + 1);
+            users = userRepository.findAllById(ids);
+            users.sort(Comparator.comparing(User::getId));
+        } else {
+            users = userRepository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(keyword, after, limit);
+        }
+        boolean hasNext = users.size() > size;
+        return new UserPage(hasNext ? users.subList(0, size) : users, hasNext);
+    }
+
+    /**
+     * 검색 결과를 한 건씩 action에 전달 (id 오름차순)
+     * 결과 전체를 리스트로 만들지 않고, 처리한 엔티티는 영속성 컨텍스트에서 분리하므로 결과 수와 상관없이 메모리가 일정
+     * - 검색어 없음: users 전체를 커서로 조회
+     * - 색인 사용: 색인에서 이전 묶음의 마지막 id 다음부터 STREAM_CHUNK_SIZE개씩 찾아서 조회 (id 전체를 모으지 않음)
+     * - 색인 준비 전: LIKE 검색을 커서로 조회
+     * @return 전달한 사용자 수
+     */
+    public long forEach(String keyword, Consumer<User> action) {
+        if (keyword != null && !keyword.isBlank() && searchIndex.isReady()) {
+            long count = 0;
+            List<Long> ids;
+            long after = Long.MIN_VALUE;
+            do {
+                ids = searchIndex.search(keyword, after, STREAM_CHUNK_SIZE);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<User> users = userRepository.findAllById(ids);
+                users.sort(Comparator.comparing(User::getId));
+                users.forEach(action);
+                count += users.size();
+                entityManager.clear();
+                after = ids.get(ids.size() - 1);
+            } while (ids.size() == STREAM_CHUNK_SIZE);
+            return count;
+        }
+        try (Stream<User> users = keyword == null || keyword.isBlank()
+            ? userRepository.streamAll()
+            : userRepository.streamByNameContaining(keyword)) {
+            long count = 0;
+            for (Iterator<User> iterator = users.iterator(); iterator.hasNext(); count++) {
+                User user = iterator.next();
+                action.accept(user);
+                entityManager.detach(user);
+            }
+            return count;
+        }
+    }
+
+    public KeyedSpecification<User> makeSpecification(String keyword) {
+        String normalized = keyword.toLowerCase(Locale.ROOT);
+        return KeyedSpecification.of("nameContains", (root, query, criteriaBuilder) ->
+            criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + normalized + "%"),
+            user -> user.getName() != null && user.getName().toLowerCase(Locale.ROOT).contains(normalized),
+            normalized
         );
     }
 
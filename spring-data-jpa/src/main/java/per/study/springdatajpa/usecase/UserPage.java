@@ -0,0 +1,18 @@
+package per.study.springdatajpa.usecase;
+
+import per.study.springdatajpa.entity.User;
+
+import java.util.List;
+
+/**
+ * 키셋 페이지: id 오름차순으로 정렬된 사용자 목록과 다음 페이지 존재 여부
+ */
+public record UserPage(List<User> users, boolean hasNext) {
+
+    /**
+     * 다음 페이지를 요청할 때 넘길 마지막 id (다음 페이지가 없으면 null)
+     */
+    public Long nextAfterId() {
+        return hasNext ? users.get(users.size() - 1).getId() : null;
+    }
+}
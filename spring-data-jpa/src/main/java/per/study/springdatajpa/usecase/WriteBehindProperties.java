@@ -0,0 +1,20 @@
+package per.study.springdatajpa.usecase;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * users.write-behind.*
+ * @param maxBatchSize 한 번에 INSERT할 최대 건수 (hibernate.jdbc.batch_size와 맞춤)
+ * @param maxDelay 첫 요청이 들어온 뒤 배치를 모으는 최대 시간
+ * @param queueCapacity 대기열 크기, 가득 차면 요청을 거절
+ */
+@ConfigurationProperties(prefix = "users.write-behind")
+public record WriteBehindProperties(
+    @DefaultValue("50") int maxBatchSize,
+    @DefaultValue("5ms") Duration maxDelay,
+    @DefaultValue("10000") int queueCapacity
+) {
+}
@@ -0,0 +1,15 @@
+-- User.id를 IDENTITY(AUTO_INCREMENT)에서 users_seq(allocationSize = 50)로 바꿀 때 한 번 실행
+-- 기존 행은 AUTO_INCREMENT로 받은 id를 가지고 있으므로 시퀀스를 MAX(id) 뒤에서 시작해야 중복 키 오류가 나지 않음
+-- pooled 옵티마이저는 읽은 값에서 allocationSize - 1을 뺀 값부터 나눠주므로 MAX(id) + allocationSize 이상,
+-- allocationSize 단위로 맞춘 값(+1)으로 초기화
+--
+-- 실행: mysql -u root -p userdb < src/main/resources/db/mysql/users_seq.sql (애플리케이션을 멈춘 상태에서)
+create table if not exists users_seq (
+    next_val bigint
+) engine = InnoDB;
+
+delete from users_seq;
+
+insert into users_seq (next_val)
+select (floor(coalesce(max(id), 0) / 50) + 2) * 50 + 1
+from users;
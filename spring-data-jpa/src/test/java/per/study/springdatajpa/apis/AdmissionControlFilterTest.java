@@ -0,0 +1,59 @@
+package per.study.springdatajpa.apis;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void asyncRequestReleasesPermitWhenControllerReturns() throws Exception {
+        AdmissionControlFilter filter = filter();
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void heldAsyncRequestReleasesPermitWhenResponseCompletes() throws Exception {
+        AdmissionControlFilter filter = filter();
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(AdmissionControlFilter.HOLD_UNTIL_COMPLETE, Boolean.TRUE);
+            req.startAsync();
+        });
+        assertThat(filter.availablePermits()).isZero();
+
+        request.getAsyncContext().complete();
+        assertThat(filter.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void routingSizesPermitsFromBothPools() throws Exception {
+        HikariDataSource single = pool(10);
+
+        assertThat(AdmissionControlFilter.poolSize(single, null, null)).isEqualTo(10);
+        assertThat(AdmissionControlFilter.poolSize(single, pool(10), pool(5))).isEqualTo(15);
+    }
+
+    private static AdmissionControlFilter filter() throws Exception {
+        return new AdmissionControlFilter(new AdmissionProperties(true, 1, Duration.ofMillis(10)), null, null, null);
+    }
+
+    private static HikariDataSource pool(int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return dataSource;
+    }
+}
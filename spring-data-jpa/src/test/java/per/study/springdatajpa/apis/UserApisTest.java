@@ -0,0 +1,85 @@
+package per.study.springdatajpa.apis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import per.study.springdatajpa.entity.User;
+import per.study.springdatajpa.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class UserApisTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserApis userApis;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void streamsMatchingUsersAsNdjson() throws Exception {
+        User first = userRepository.save(new User("stream-match-1"));
+        User second = userRepository.save(new User("stream-match-2"));
+        userRepository.save(new User("stream-other"));
+
+        MvcResult result = mockMvc.perform(get("/users/stream").param("q", "stream-match"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).containsExactly(
+            "{\"id\":" + first.getId() + ",\"name\":\"stream-match-1\"}",
+            "{\"id\":" + second.getId() + ",\"name\":\"stream-match-2\"}"
+        );
+    }
+
+    @Test
+    void clientAbortStopsReading() {
+        userRepository.save(new User("stream-abort-1"));
+        userRepository.save(new User("stream-abort-2"));
+        AtomicInteger writes = new AtomicInteger();
+        OutputStream aborted = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writes.incrementAndGet();
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> userApis.streamUsers("stream-abort", new MockHttpServletRequest()).getBody().writeTo(aborted))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Broken pipe");
+        // 첫 행을 바로 전송하다가 실패하면 다음 행을 읽지 않음
+        assertThat(writes).hasValue(1);
+    }
+}
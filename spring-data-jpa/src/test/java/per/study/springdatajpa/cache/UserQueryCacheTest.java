@@ -0,0 +1,120 @@
+package per.study.springdatajpa.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import per.study.springdatajpa.entity.User;
+import per.study.springdatajpa.repository.UserRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class UserQueryCacheTest {
+
+    @Autowired
+    private UserQueryCache queryCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void sameSpecificationIsServedFromCache() {
+        userRepository.save(new User("cache-hit"));
+
+        assertThat(names(nameContains("cache-hit"))).containsExactly("cache-hit");
+        double hits = gets("hit");
+        assertThat(names(nameContains("cache-hit"))).containsExactly("cache-hit");
+
+        assertThat(gets("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void committedWriteInvalidatesCachedResults() {
+        userRepository.save(new User("cache-write-1"));
+        assertThat(names(nameContains("cache-write"))).containsExactly("cache-write-1");
+
+        userRepository.save(new User("cache-write-2"));
+
+        assertThat(names(nameContains("cache-write"))).containsExactly("cache-write-1", "cache-write-2");
+    }
+
+    @Test
+    void rolledBackWriteKeepsCachedResults() {
+        userRepository.save(new User("cache-rollback-1"));
+        assertThat(names(nameContains("cache-rollback"))).containsExactly("cache-rollback-1");
+        double hits = gets("hit");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.save(new User("cache-rollback-2"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(names(nameContains("cache-rollback"))).containsExactly("cache-rollback-1");
+        assertThat(gets("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void repositoryFindAllGoesThroughCache() {
+        userRepository.save(new User("cache-repository"));
+        assertThat(userRepository.findAll(nameContains("cache-repository"))).extracting(User::getName).containsExactly("cache-repository");
+        double hits = gets("hit");
+
+        assertThat(userRepository.findAll(nameContains("cache-repository"))).extracting(User::getName).containsExactly("cache-repository");
+
+        assertThat(gets("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void writeThatCannotMatchKeepsCachedResults() {
+        userRepository.save(new User("cache-keep-1"));
+        assertThat(names(matchingNameContains("cache-keep"))).containsExactly("cache-keep-1");
+        double hits = gets("hit");
+
+        userRepository.save(new User("unrelated"));
+
+        assertThat(names(matchingNameContains("cache-keep"))).containsExactly("cache-keep-1");
+        assertThat(gets("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void renameOutOfResultInvalidatesCachedResults() {
+        User user = userRepository.save(new User("cache-rename"));
+        assertThat(names(matchingNameContains("cache-rename"))).containsExactly("cache-rename");
+
+        user.setName("renamed");
+        userRepository.save(user);
+
+        assertThat(names(matchingNameContains("cache-rename"))).isEmpty();
+    }
+
+    private List<String> names(KeyedSpecification<User> specification) {
+        return queryCache.findAll(specification).stream().map(User::getName).toList();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "users.spec").tag("result", result).functionCounter().count();
+    }
+
+    private static KeyedSpecification<User> nameContains(String keyword) {
+        return KeyedSpecification.of("nameContains", (root, query, criteriaBuilder) ->
+            criteriaBuilder.like(root.get("name"), "%" + keyword + "%"), keyword);
+    }
+
+    private static KeyedSpecification<User> matchingNameContains(String keyword) {
+        return KeyedSpecification.of("matchingNameContains", (root, query, criteriaBuilder) ->
+            criteriaBuilder.like(root.get("name"), "%" + keyword + "%"), user -> user.getName() != null && user.getName().contains(keyword), keyword);
+    }
+}
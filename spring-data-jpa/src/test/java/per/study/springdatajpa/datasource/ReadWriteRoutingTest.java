@@ -0,0 +1,128 @@
+package per.study.springdatajpa.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import per.study.springdatajpa.entity.User;
+import per.study.springdatajpa.repository.UserRepository;
+import per.study.springdatajpa.sql.TracingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles({"h2", "routing-h2"})
+class ReadWriteRoutingTest {
+
+    private static final long REPLICA_ONLY_ID = 1_000_000L;
+    private static final AtomicReference<Duration> lag = new AtomicReference<>(Duration.ZERO);
+
+    @TestConfiguration
+    static class LagConfig {
+
+        @Bean
+        @Primary
+        ReplicationLagProbe testReplicationLagProbe() {
+            return replica -> lag.get();
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicationLagMonitor lagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        // 복제되지 않은 행: replica에서 읽었는지 구분하는 용도
+        new JdbcTemplate(replica).update("merge into users (id, name) key (id) values (?, ?)", REPLICA_ONLY_ID, "replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        lag.set(Duration.ZERO);
+        lagMonitor.check();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromReplica() {
+        assertThat(readOnly().execute(status -> userRepository.findById(REPLICA_ONLY_ID))).isPresent();
+        assertThat(readWrite().execute(status -> userRepository.findById(REPLICA_ONLY_ID))).isEmpty();
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        User user = readWrite().execute(status -> userRepository.save(new User("primary")));
+
+        Integer rows = new JdbcTemplate(primary).queryForObject("select count(*) from users where id = ?", Integer.class, user.getId());
+        assertThat(rows).isOne();
+    }
+
+    @Test
+    void bothPoolsAreTraced() {
+        assertThat(primary).isInstanceOf(TracingDataSource.class);
+        assertThat(replica).isInstanceOf(TracingDataSource.class);
+
+        readOnly().execute(status -> userRepository.findById(REPLICA_ONLY_ID));
+        readWrite().execute(status -> userRepository.save(new User("traced")));
+
+        assertThat(meterRegistry.find("jdbc.statement").tag("datasource", "replica").tag("type", "select").timers()).isNotEmpty();
+        assertThat(meterRegistry.find("jdbc.statement").tag("datasource", "primary").tag("type", "insert").timers()).isNotEmpty();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        double before = fallbacks();
+        lag.set(Duration.ofMinutes(1));
+        lagMonitor.check();
+
+        Optional<User> user = readOnly().execute(status -> userRepository.findById(REPLICA_ONLY_ID));
+
+        assertThat(user).isEmpty();
+        assertThat(fallbacks()).isGreaterThan(before);
+    }
+
+    private double fallbacks() {
+        return meterRegistry.get("datasource.route").tag("route", "primary").tag("reason", "lag").counter().count();
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private TransactionTemplate readWrite() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,83 @@
+package per.study.springdatajpa.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void findsSubstringIgnoringCase() {
+        index.put(1, "Duho Kim");
+        index.put(2, "kim duhoon");
+        index.put(3, "hodu");
+
+        assertThat(index.search("duho")).containsExactly(1L, 2L);
+        assertThat(index.search("DU")).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void excludesDocumentsWithGramsInAnotherOrder() {
+        index.put(1, "uhoduh");
+
+        assertThat(index.search("duho")).isEmpty();
+    }
+
+    @Test
+    void reflectsUpdatesAndDeletes() {
+        index.put(1, "duho");
+        index.put(1, "jiwon");
+        index.put(2, "duho");
+        index.remove(2);
+
+        assertThat(index.search("duho")).isEmpty();
+        assertThat(index.search("jiw")).containsExactly(1L);
+    }
+
+    @Test
+    void searchesFromAfterIdUpToLimit() {
+        for (long id = 1; id <= 10; id++) {
+            index.put(id, id % 2 == 0 ? "duho" + id : "jiwon" + id);
+        }
+
+        assertThat(index.search("duho", 4, 2)).containsExactly(6L, 8L);
+        assertThat(index.search("du", 8, 5)).containsExactly(10L);
+        assertThat(index.search("duho", 10, 5)).isEmpty();
+    }
+
+    @Test
+    void concurrentUpdatesOfTheSameDocumentKeepItsTrigrams() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 1_000; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                String first = round % 2 == 0 ? "xyz" : "abc";
+                String second = round % 2 == 0 ? "abc" : "xyz";
+                executor.submit(() -> {
+                    start.await();
+                    index.put(1, first);
+                    return null;
+                });
+                executor.submit(() -> {
+                    start.await();
+                    index.put(1, second);
+                    return null;
+                });
+                start.countDown();
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // 마지막에 남은 원문이 무엇이든 그 원문으로 찾을 수 있어야 함
+        assertThat(index.search("xyz").size() + index.search("abc").size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,37 @@
+package per.study.springdatajpa.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import per.study.springdatajpa.repository.UserRepository;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserSearchIndex searchIndex = new UserSearchIndex(userRepository, mock(PlatformTransactionManager.class));
+
+    @Test
+    void changesCommittedDuringBuildAreReplayedAfterRowsReadEarlier() {
+        // 1번 행을 색인하기 직전에 이름 변경과 2번 삭제가 커밋됨 (읽고 있는 행은 변경 전 값)
+        when(userRepository.streamIdAndName()).thenReturn(Stream.<Object[]>of(
+            new Object[] {1L, "duho"},
+            new Object[] {2L, "duho2"}
+        ).peek(row -> {
+            if (row[0].equals(1L)) {
+                searchIndex.put(1L, "jiwon");
+                searchIndex.remove(2L);
+            }
+        }));
+
+        searchIndex.build();
+
+        assertThat(searchIndex.isReady()).isTrue();
+        assertThat(searchIndex.search("duho")).isEmpty();
+        assertThat(searchIndex.search("jiwon")).containsExactly(1L);
+    }
+}
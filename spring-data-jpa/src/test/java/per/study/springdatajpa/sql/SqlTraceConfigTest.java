@@ -0,0 +1,58 @@
+package per.study.springdatajpa.sql;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import per.study.springdatajpa.entity.User;
+import per.study.springdatajpa.repository.UserRepository;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "users.sql-trace.slow-threshold=0ms")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class SqlTraceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void connectionPoolIsWrappedAndRecordsStatements() throws Exception {
+        assertThat(dataSource).isInstanceOf(TracingDataSource.class);
+        // 자동 설정 풀은 이름이 없으므로 빈 이름이 풀 이름이자 datasource 태그
+        assertThat(dataSource.unwrap(HikariDataSource.class).getPoolName()).isEqualTo("dataSource");
+
+        userRepository.save(new User("sql-trace"));
+
+        assertThat(meterRegistry.find("jdbc.statement").tag("datasource", "dataSource").tag("type", "insert").timers()).isNotEmpty();
+    }
+
+    @Test
+    void slowQueriesEndpointReturnsRecordedStatements() throws Exception {
+        userRepository.save(new User("sql-trace-slow"));
+
+        mockMvc.perform(get("/actuator/slowqueries"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.queries").isNotEmpty())
+            .andExpect(jsonPath("$.queries[0].sql").isString());
+    }
+}